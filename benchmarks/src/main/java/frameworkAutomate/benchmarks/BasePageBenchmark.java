@@ -0,0 +1,64 @@
+package frameworkAutomate.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import frameworkAutomate.core.BasePage;
+import frameworkAutomate.pages.RegisterPage;
+
+/**
+ * Round-trip cost of the {@link BasePage} interactions on the register
+ * stand-in page, and of building a page object.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class BasePageBenchmark {
+
+	private static final By FIRST_NAME = By.id("firstName");
+	private static final By FIRST_NAME_LABEL = By.id("firstName-label");
+	private static final By CAPTCHA = By.id("recaptcha-anchor");
+
+	private BasePage page;
+
+	@Setup(Level.Trial)
+	public void setup(BrowserState browser) {
+		browser.open("register");
+		page = new RegisterPage(browser.driver);
+	}
+
+	@Benchmark
+	public void click() {
+		page.click(CAPTCHA);
+	}
+
+	@Benchmark
+	public void write() {
+		page.write(FIRST_NAME, "John");
+	}
+
+	@Benchmark
+	public String read() {
+		return page.read(FIRST_NAME_LABEL);
+	}
+
+	@Benchmark
+	public BasePage newPageObject(BrowserState browser) {
+		return new RegisterPage(browser.driver);
+	}
+}
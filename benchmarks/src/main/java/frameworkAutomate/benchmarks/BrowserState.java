@@ -0,0 +1,45 @@
+package frameworkAutomate.benchmarks;
+
+import java.time.Duration;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+
+import frameworkAutomate.core.DriverFactory;
+import frameworkAutomate.core.FixtureServer;
+
+/**
+ * One headless browser per benchmark thread, pointed at an in-process
+ * {@link FixtureServer} serving the demoqa stand-in pages.
+ */
+@State(Scope.Thread)
+public class BrowserState {
+
+	public FixtureServer server;
+	public WebDriver driver;
+
+	@Setup(Level.Trial)
+	public void start() {
+		server = new FixtureServer("fixtures/demoqa", Duration.ZERO);
+		driver = DriverFactory.getDriver();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		DriverFactory.quitDriver();
+		server.close();
+	}
+
+	/**
+	 * Loads a fixture page; returns once the document has loaded.
+	 *
+	 * @param path Page path relative to the server, e.g. register.
+	 */
+	public void open(String path) {
+		driver.get(server.baseUrl() + path);
+	}
+}
@@ -0,0 +1,35 @@
+package frameworkAutomate.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import frameworkAutomate.core.DriverFactory;
+
+/**
+ * Cost of a session as a test sees it: {@code getDriver()} in setup and
+ * {@code quitDriver()} in teardown, in the configured {@code driver.mode}.
+ * Each invocation is a single shot: browser startup is far too slow for
+ * throughput modes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DriverFactoryBenchmark {
+
+	@Benchmark
+	public WebDriver createAndQuit() {
+		WebDriver driver = DriverFactory.getDriver();
+		DriverFactory.quitDriver();
+		return driver;
+	}
+}
@@ -0,0 +1,53 @@
+package frameworkAutomate.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+
+import frameworkAutomate.pages.HomePage;
+
+/**
+ * {@link HomePage#getCardByName(String)} on the home stand-in page: warm
+ * (the page object already indexed the cards) and cold (a new page object
+ * indexes them first).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class HomePageBenchmark {
+
+	private static final String CARD = "Book Store Application"; // last card: worst case for a linear scan
+
+	private HomePage warm;
+
+	@Setup(Level.Trial)
+	public void setup(BrowserState browser) {
+		browser.open("");
+		warm = new HomePage(browser.driver);
+		warm.getCardByName(CARD);
+	}
+
+	@Benchmark
+	public WebElement warmIndex() {
+		return warm.getCardByName(CARD);
+	}
+
+	@Benchmark
+	public WebElement coldIndex(BrowserState browser) {
+		return new HomePage(browser.driver).getCardByName(CARD);
+	}
+}
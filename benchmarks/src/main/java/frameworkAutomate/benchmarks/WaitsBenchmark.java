@@ -0,0 +1,87 @@
+package frameworkAutomate.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import frameworkAutomate.core.DriverContext;
+import frameworkAutomate.core.PollingStrategy;
+import frameworkAutomate.core.Waits;
+
+/**
+ * How long {@link Waits} takes to resolve a condition that already holds, and
+ * how far past the real appearance time it notices an element that shows up
+ * {@link Delay#delayMs} after load (navigation cost included; compare with
+ * {@link #navigateOnly}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitsBenchmark {
+
+	private static final By FIRST_NAME = By.id("firstName");
+	private static final By LATE = By.id("late");
+
+	@Param({ "FIXED", "ADAPTIVE" })
+	public PollingStrategy strategy;
+
+	private Waits waits;
+
+	@Setup(Level.Trial)
+	public void setup(BrowserState browser) {
+		waits = DriverContext.of(browser.driver).waits().withPolling(strategy);
+	}
+
+	@Benchmark
+	public WebElement visibleAlreadyThere(BrowserState browser, RegisterLoaded page) {
+		return waits.visible(FIRST_NAME);
+	}
+
+	@Benchmark
+	public boolean documentReady(BrowserState browser, RegisterLoaded page) {
+		return waits.documentReady();
+	}
+
+	@Benchmark
+	public WebElement visibleAfterDelay(BrowserState browser, Delay delay) {
+		browser.open("delayed?delay=" + delay.delayMs);
+		return waits.visible(LATE);
+	}
+
+	@Benchmark
+	public void navigateOnly(BrowserState browser, Delay delay) {
+		browser.open("delayed?delay=" + delay.delayMs);
+	}
+
+	/** How long after load the late element appears; only the delayed benchmarks take it. */
+	@State(Scope.Thread)
+	public static class Delay {
+		@Param({ "0", "50", "250" })
+		public int delayMs;
+	}
+
+	/** The register page, loaded once per trial. */
+	@State(Scope.Thread)
+	public static class RegisterLoaded {
+		@Setup(Level.Trial)
+		public void load(BrowserState browser) {
+			browser.open("register");
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package frameworkAutomate.listeners;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aventstack.extentreports.ExtentReports;
+
+/**
+ * What report logging costs the test threads: the calls only enqueue, so this
+ * measures the producer side with four concurrent "tests", per backend. Lives in
+ * the listeners package to reach the package-private sink and writers.
+ * <p>
+ * Each iteration is one batch of 1000 calls per thread on a fresh report, then
+ * the writer catches up: a free-running loop would outpace the writer thread
+ * and only measure the queue growing.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = 1000)
+@Measurement(iterations = 30, batchSize = 1000)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ReportLoggingBenchmark {
+
+	@Param({ "extent", "incremental" })
+	public String mode;
+
+	private ReportSink sink;
+	private Path file;
+
+	@Setup(Level.Trial)
+	public void createFile() throws IOException {
+		file = Files.createTempFile("report-bench", ".jsonl");
+	}
+
+	@Setup(Level.Iteration)
+	public void newReport() {
+		// Extent without a reporter: nothing is rendered, only the model is built
+		ReportWriter writer = mode.equals("extent") ? new ExtentReportWriter(new ExtentReports())
+				: new JsonLinesReportWriter(file, 500);
+		sink = new ReportSink(writer);
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeReport() {
+		sink.close(60); // drains, closes the file and stops the writer thread before the next batch
+	}
+
+	@TearDown(Level.Trial)
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public TestLog info(RunningTest test) {
+		return test.log.info("Clicking on the 'Elements' card");
+	}
+
+	@Benchmark
+	public void wholeTest() {
+		TestLog log = new TestLog(sink, "benchmark", "one short test");
+		log.info("Starting test");
+		log.info("Step 1");
+		log.info("Step 2");
+		log.pass("Test passed");
+		log.end();
+	}
+
+	/** A test that stays open for one iteration. */
+	@State(Scope.Thread)
+	public static class RunningTest {
+		TestLog log;
+
+		@Setup(Level.Iteration)
+		public void start(ReportLoggingBenchmark bench) {
+			log = new TestLog(bench.sink, "benchmark-" + Thread.currentThread().getName(), null);
+		}
+	}
+}
@@ -1,8 +1,15 @@
 package frameworkAutomate.core;
 
+import java.lang.reflect.Field;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.openqa.selenium.Alert;
@@ -13,21 +20,55 @@ import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.Select;
 
 /** Superclass of all Page Objects. */
 public abstract class BasePage {
 
+	private static final String READ_STATES = JsLocators.FUNCTIONS + """
+			return arguments[0].map(function (spec) {
+			  var el = __find(spec);
+			  if (!el) return null;
+			  var visible = __visible(el);
+			  var control = el instanceof HTMLInputElement || el instanceof HTMLSelectElement
+			      || el instanceof HTMLTextAreaElement;
+			  return [visible, !el.disabled, visible ? (el.innerText || '').trim() : '', control ? String(el.value) : null];
+			});
+			""";
+
+	private static final String INDEX_BY_TEXT = JsLocators.FUNCTIONS + """
+			var els = __findAll(arguments[0]);
+			return [els.map(function (el) { return el.innerText || el.textContent || ''; }), els];
+			""";
+
+	// Whether a page class has fields for PageFactory to proxy; computed once per class
+	private static final ClassValue<Boolean> NEEDS_PAGE_FACTORY = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != null && c != BasePage.class; c = c.getSuperclass())
+				for (Field field : c.getDeclaredFields())
+					if (WebElement.class.equals(field.getType()) || field.isAnnotationPresent(FindBy.class)
+							|| field.isAnnotationPresent(FindBys.class) || field.isAnnotationPresent(FindAll.class))
+						return true;
+			return false;
+		}
+	};
+
 	protected final WebDriver driver;
 	protected final Waits waits;
-	private final Actions actions;
+	private final boolean explicitOnly;
 
 	protected BasePage(WebDriver driver) {
 		this.driver = Objects.requireNonNull(driver, "driver cannot be null");
-		this.waits = new Waits(driver);
-		this.actions = new Actions(driver);
-		PageFactory.initElements(driver, this);
+		DriverContext context = DriverContext.of(driver); // shared by every page of this session
+		this.waits = context.waits();
+		this.explicitOnly = context.explicitOnly();
+		if (NEEDS_PAGE_FACTORY.get(getClass()))
+			PageFactory.initElements(driver, this);
 	}
 
 	/*
@@ -35,13 +76,32 @@ public abstract class BasePage {
 	 */
 
 	/**
-	 * Performs the 'goTo' operation.
+	 * Performs the 'goTo' operation. Its timing is labelled with the page class,
+	 * not the URL, so query strings and ids do not multiply the metric series.
 	 *
 	 * @param url Parameter of type String.
 	 */
 	public void goTo(String url) {
-		driver.get(url);
-		waits.documentReady();
+		timed("goTo", getClass().getSimpleName(), () -> {
+			driver.get(url);
+			waits.documentReady();
+			return null;
+		});
+	}
+
+	/**
+	 * Starts from the state a setup flow leaves (login, accepted cookies, seeded
+	 * data): restored from a saved snapshot when there is a fresh one, otherwise
+	 * built by running the setup once and saved. See {@link SessionSnapshots}.
+	 * After a restore the browser is on a bootstrap page of the site; after the
+	 * setup it is wherever the setup left it. Navigate afterwards either way.
+	 *
+	 * @param snapshot The snapshot name, e.g. "logged-in".
+	 * @param setup    The flow that builds the state in this page's session.
+	 * @return true if the state was restored, false if the setup ran.
+	 */
+	public boolean startFrom(String snapshot, Runnable setup) {
+		return timed("startFrom", snapshot, () -> SessionSnapshots.restoreOrCapture(driver, snapshot, setup));
 	}
 
 	/**
@@ -123,6 +183,42 @@ public abstract class BasePage {
 		return waits.presenceOfAll(locator);
 	}
 
+	/**
+	 * Indexes every element matching the locator by its normalized text (see
+	 * {@link #normalizeText(String)}) with one script call, instead of one
+	 * {@code getText()} round-trip per element. When several elements share a
+	 * text, the first one in document order wins.
+	 *
+	 * @param locator A standard locator (id, name, class name, css, xpath, tag
+	 *                name, link text).
+	 * @return The elements keyed by normalized text, in document order.
+	 */
+	protected Map<String, WebElement> indexByText(By locator) {
+		List<?> raw = (List<?>) ((JavascriptExecutor) driver).executeScript(INDEX_BY_TEXT, JsLocators.toSpec(locator));
+		if (((List<?>) raw.get(1)).isEmpty()) { // not rendered yet: wait like getAll() would, then index
+			waits.present(locator);
+			raw = (List<?>) ((JavascriptExecutor) driver).executeScript(INDEX_BY_TEXT, JsLocators.toSpec(locator));
+		}
+
+		List<?> texts = (List<?>) raw.get(0);
+		List<?> elements = (List<?>) raw.get(1);
+		Map<String, WebElement> index = new LinkedHashMap<>();
+		for (int i = 0; i < elements.size(); i++)
+			index.putIfAbsent(normalizeText((String) texts.get(i)), (WebElement) elements.get(i));
+		return index;
+	}
+
+	/**
+	 * Normalizes a text for case-insensitive lookups: collapses whitespace, trims
+	 * and lower-cases it.
+	 *
+	 * @param text Parameter of type String.
+	 * @return The normalized text.
+	 */
+	protected static String normalizeText(String text) {
+		return text == null ? "" : text.replaceAll("\\s+", " ").trim().toLowerCase(Locale.ROOT);
+	}
+
 	/*
 	 * ============================ Safe interactions ============================
 	 */
@@ -132,8 +228,8 @@ public abstract class BasePage {
 	 * clicks.
 	 */
 	public void click(By locator) {
-		withRetry(() -> {
-			WebElement element = waits.clickable(locator);
+		step("click", locator, w -> {
+			WebElement element = w.clickable(locator);
 			scrollIntoViewCenter(element);
 			try {
 				element.click();
@@ -146,8 +242,8 @@ public abstract class BasePage {
 
 	/** Send text securely: focus, clean with various strategies, and then write. */
 	public void write(By locator, CharSequence text) {
-		withRetry(() -> {
-			WebElement element = waits.visible(locator);
+		step("write", locator, w -> {
+			WebElement element = w.visible(locator);
 			scrollIntoViewCenter(element);
 			focus(element);
 			element.clear();
@@ -163,8 +259,8 @@ public abstract class BasePage {
 	 * @param value   Parameter of type String.
 	 */
 	public void selectByVisibleText(By locator, String value) {
-		withRetry(() -> {
-			Select select = new Select(waits.visible(locator));
+		step("select", locator, w -> {
+			Select select = new Select(w.visible(locator));
 			select.selectByVisibleText(value);
 			return null;
 		});
@@ -178,8 +274,8 @@ public abstract class BasePage {
 	 */
 
 	public void selectByValue(By locator, String value) {
-		withRetry(() -> {
-			Select select = new Select(waits.visible(locator));
+		step("select", locator, w -> {
+			Select select = new Select(w.visible(locator));
 			select.selectByValue(value);
 			return null;
 		});
@@ -192,8 +288,8 @@ public abstract class BasePage {
 	 * @param index   Parameter of type int.
 	 */
 	public void selectByIndex(By locator, int index) {
-		withRetry(() -> {
-			Select select = new Select(waits.visible(locator));
+		step("select", locator, w -> {
+			Select select = new Select(w.visible(locator));
 			select.selectByIndex(index);
 			return null;
 		});
@@ -201,15 +297,21 @@ public abstract class BasePage {
 
 	/** Hover using actions. */
 	public void hover(By locator) {
-		WebElement el = waits.visible(locator);
-		scrollIntoViewCenter(el);
-		actions.moveToElement(el).perform();
+		timed("hover", locator, () -> {
+			WebElement el = waits.visible(locator);
+			scrollIntoViewCenter(el);
+			new Actions(driver).moveToElement(el).perform(); // Actions accumulates steps: one per gesture
+			return null;
+		});
 	}
 
 	/** Upload a file using a <input type="file">. */
 	public void uploadFile(By inputLocator, Path filePath) {
-		WebElement input = waits.present(inputLocator);
-		input.sendKeys(filePath.toAbsolutePath().toString());
+		timed("upload", inputLocator, () -> {
+			WebElement input = waits.present(inputLocator);
+			input.sendKeys(filePath.toAbsolutePath().toString());
+			return null;
+		});
 	}
 
 	/*
@@ -224,7 +326,34 @@ public abstract class BasePage {
 	 * @return The text of the element as a String.
 	 */
 	public String read(By locator) {
-		return waits.visible(locator).getText().trim();
+		return timed("read", locator, () -> waits.visible(locator).getText().trim());
+	}
+
+	/**
+	 * Reads presence, visibility, enabled state, text and value of several
+	 * elements in one script round-trip. It takes a snapshot and does not wait:
+	 * synchronize first (e.g. {@link #find(By)} on one of them) when the page may
+	 * still be rendering.
+	 *
+	 * @param locators Standard locators (id, name, class name, css, xpath, tag
+	 *                 name, link text).
+	 * @return The state of each locator, in argument order.
+	 */
+	public Map<By, ElementState> readStates(By... locators) {
+		List<List<String>> specs = new ArrayList<>(locators.length);
+		for (By locator : locators)
+			specs.add(JsLocators.toSpec(locator));
+
+		List<?> raw = (List<?>) ((JavascriptExecutor) driver).executeScript(READ_STATES, specs);
+
+		Map<By, ElementState> states = new LinkedHashMap<>();
+		for (int i = 0; i < locators.length; i++) {
+			List<?> row = (List<?>) raw.get(i);
+			states.put(locators[i], row == null ? ElementState.ABSENT
+					: new ElementState(true, (Boolean) row.get(0), (Boolean) row.get(1), (String) row.get(2),
+							(String) row.get(3)));
+		}
+		return states;
 	}
 
 	/*
@@ -233,12 +362,16 @@ public abstract class BasePage {
 	 */
 
 	/**
-	 * Return true if the element is displayed, false otherwise.
+	 * Return true if the element is displayed, false otherwise. Under
+	 * {@code wait.policy=explicit} this is an immediate check: it does not wait
+	 * for the element to appear.
 	 * 
 	 * @param locator Parameter of type By.
 	 * @return The result of type boolean.
 	 */
 	public boolean isDisplayed(By locator) {
+		if (explicitOnly)
+			return checkNow(locator, WebElement::isDisplayed);
 		try {
 			return waits.visible(locator).isDisplayed();
 		} catch (NoSuchElementException e) {
@@ -247,12 +380,15 @@ public abstract class BasePage {
 	}
 
 	/**
-	 * Return true if the element is enabled, false otherwise.
+	 * Return true if the element is enabled, false otherwise. Under
+	 * {@code wait.policy=explicit} this is an immediate check.
 	 * 
 	 * @param locator Parameter of type By.
 	 * @return The result of type boolean.
 	 */
 	public boolean isEnabled(By locator) {
+		if (explicitOnly)
+			return checkNow(locator, WebElement::isEnabled);
 		try {
 			return waits.visible(locator).isEnabled();
 		} catch (NoSuchElementException e) {
@@ -261,12 +397,15 @@ public abstract class BasePage {
 	}
 
 	/**
-	 * Return true if the element is selected (for checkboxes/radio buttons),
+	 * Return true if the element is selected (for checkboxes/radio buttons), false
+	 * otherwise. Under {@code wait.policy=explicit} this is an immediate check.
 	 * 
 	 * @param locator Parameter of type By.
 	 * @return The result of type boolean.
 	 */
 	public boolean isSelected(By locator) {
+		if (explicitOnly)
+			return checkNow(locator, WebElement::isSelected);
 		try {
 			return waits.visible(locator).isSelected();
 		} catch (NoSuchElementException e) {
@@ -274,6 +413,16 @@ public abstract class BasePage {
 		}
 	}
 
+	// With no implicit wait, findElements returns at once: absent elements cost one round-trip
+	private boolean checkNow(By locator, Predicate<WebElement> state) {
+		List<WebElement> found = driver.findElements(locator);
+		try {
+			return !found.isEmpty() && state.test(found.get(0));
+		} catch (StaleElementReferenceException e) {
+			return false;
+		}
+	}
+
 	/*
 	 * ============================ Page waits/URL ============================
 	 */
@@ -374,30 +523,73 @@ public abstract class BasePage {
 	/* ============================ Infra: Retries ============================ */
 
 	/**
-	 * Return the result of a supplier action with retries for specific exceptions.
+	 * Return the result of a supplier action, retried as {@link #retryPolicy()}
+	 * allows. The budget only bounds the attempts and sleeps between them:
+	 * waits inside the action use the page's {@link #waits} and their full
+	 * timeout. Use {@link #withRetry(Function)} to keep them within the budget.
 	 * 
 	 * @param action A Supplier that returns a result of type T.
 	 * @return The result of type T.
 	 */
 
 	protected <T> T withRetry(Supplier<T> action) {
-		RuntimeException last = null;
-		for (int i = 0; i < 3; i++) {
-			try {
-				return action.get();
-			} catch (StaleElementReferenceException | NoSuchElementException e) {
-				last = e;
-				sleep(120);
-			} catch (RuntimeException e) {
-				last = e;
-				sleep(120);
-			}
+		return withRetry("custom", getClass().getSimpleName(), w -> action.get());
+	}
+
+	/**
+	 * Return the result of an action, retried as {@link #retryPolicy()} allows.
+	 * Each attempt receives waits bounded by what is left of the retry budget,
+	 * as the built-in interactions do.
+	 * 
+	 * @param action A Function of the bounded Waits that returns a result of
+	 *               type T.
+	 * @return The result of type T.
+	 */
+	protected <T> T withRetry(Function<Waits, T> action) {
+		return withRetry("custom", getClass().getSimpleName(), action);
+	}
+
+	/**
+	 * Returns the retry policy of this page's interactions. Override to adjust
+	 * it, e.g. {@code return RetryPolicy.configured().withMaxAttempts(5);}.
+	 *
+	 * @return The result of type RetryPolicy.
+	 */
+	protected RetryPolicy retryPolicy() {
+		return RetryPolicy.configured();
+	}
+
+	// Each attempt gets waits bounded by what is left of the retry budget
+	private <T> T withRetry(String op, Object target, Function<Waits, T> action) {
+		return retryPolicy().execute(remaining -> action.apply(waits.within(remaining)),
+				e -> StepMetrics.retry(op, target));
+	}
+
+	/* ============================ Infra: Metrics ============================ */
+
+	// A retried interaction: timed once, retries counted separately
+	private <T> T step(String op, By locator, Function<Waits, T> action) {
+		return timed(op, locator, () -> withRetry(op, locator, action));
+	}
+
+	private <T> T timed(String op, Object target, Supplier<T> action) {
+		long start = StepMetrics.start();
+		boolean ok = false;
+		try {
+			T result = action.get();
+			ok = true;
+			return result;
+		} finally {
+			StepMetrics.record(op, target, start, ok);
 		}
-		if (last != null)
-			throw last;
-		return null;
 	}
 
+	/**
+	 * Pauses the test. Holds no lock, so on a virtual thread
+	 * ({@code execution.threads=virtual}) the carrier thread is released.
+	 *
+	 * @param millis Parameter of type long.
+	 */
 	protected void sleep(long millis) {
 		try {
 			Thread.sleep(millis);
@@ -0,0 +1,288 @@
+package frameworkAutomate.core;
+
+import frameworkAutomate.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.browsingcontext.BrowsingContext;
+import org.openqa.selenium.bidi.browsingcontext.CreateContextParameters;
+import org.openqa.selenium.bidi.module.Browser;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs several tests in one browser process, each in its own tab and its own
+ * browser context, so cookies, storage and cache are not shared between them.
+ * A browser costs hundreds of MB; a context costs a few.
+ * <p>
+ * Contexts are CDP browser contexts on Chrome and Edge and BiDi user contexts
+ * on Firefox. A browser hosts up to {@code driver.tabs.per.browser} tests; a
+ * new one is launched when all are full.
+ * <p>
+ * WebDriver commands act on the session's current window, so each test gets a
+ * {@link WebDriver} bound to its tab: every call, on the driver or on any
+ * element or navigation object it returns, takes the browser's lock and
+ * switches to the tab first when another test used the browser last. Tests of
+ * one browser therefore run their commands one at a time, interleaved; waiting
+ * (polling sleeps, retries) happens outside the lock.
+ * <p>
+ * The lock is held for the whole command, and the browser driver runs one
+ * command per session at a time anyway, so a long command stalls every tab of
+ * the browser. That is why this mode refuses {@code wait.engine=observer},
+ * whose waits are single asynchronous scripts lasting up to
+ * {@code explicit.timeout}, and sets the implicit wait of its browsers to 0
+ * whatever {@code wait.policy} and {@code implicit.timeout} say: otherwise
+ * every negative lookup inside an explicit-wait poll would hold the lock for
+ * the implicit timeout. Waiting goes through {@link Waits} only, as under
+ * {@code wait.policy=explicit}.
+ * <p>
+ * Limits: a frame selected with {@code switchTo().frame} is lost when another
+ * test of the same browser runs a command in between; network rules and
+ * traffic recording only see the browser's first tab. Without
+ * {@code headless=true}, Chrome throttles the timers and animation frames of
+ * tabs in the background, so pages that poll or animate run slower in every
+ * tab but the focused one, and screenshots of background tabs may be blank.
+ * <p>
+ * The tab drivers delegate {@code equals} and {@code hashCode} to the shared
+ * browser: key maps by identity, as {@link DriverContext} does.
+ */
+public class BrowserTabs {
+
+	private final Supplier<WebDriver> factory;
+	private final int perBrowser;
+
+	private final ReentrantLock hostsLock = new ReentrantLock();
+	private final List<Host> hosts = new ArrayList<>();
+	private final Map<DriverContext.Session, Tab> leased = new ConcurrentHashMap<>();
+
+	public BrowserTabs(Supplier<WebDriver> factory) {
+		this.factory = Objects.requireNonNull(factory, "factory cannot be null");
+		this.perBrowser = Math.max(1, ConfigReader.getInt("driver.tabs.per.browser", 4));
+		if ("observer".equalsIgnoreCase(ConfigReader.get("wait.engine", "polling").trim()))
+			throw new IllegalStateException("driver.mode=tabs cannot run with wait.engine=observer:"
+					+ " each wait would block every tab of the browser for up to explicit.timeout");
+	}
+
+	/**
+	 * Opens a tab in a new browser context, in a browser that has room for it,
+	 * launching a browser if none has.
+	 *
+	 * @return A WebDriver bound to the new tab.
+	 */
+	public WebDriver lease() {
+		Host host = reserve();
+		if (host == null) {
+			// Launched outside the lock: other tests keep getting tabs meanwhile
+			host = new Host(factory.get());
+			host.tabs = 1;
+			hostsLock.lock();
+			try {
+				hosts.add(host);
+			} finally {
+				hostsLock.unlock();
+			}
+		}
+
+		try {
+			Tab tab = new Tab(host, host.open());
+			leased.put(new DriverContext.Session(tab.driver), tab);
+			return tab.driver;
+		} catch (RuntimeException e) {
+			free(host);
+			throw e;
+		}
+	}
+
+	/**
+	 * Closes a tab and its context. The browser stays up for the next test.
+	 *
+	 * @param driver A driver obtained from {@link #lease()}.
+	 */
+	public void release(WebDriver driver) {
+		Tab tab = leased.remove(new DriverContext.Session(driver));
+		DriverContext.discard(driver);
+		if (tab == null) { // not ours: behave like a plain quit
+			driver.quit();
+			return;
+		}
+		try {
+			tab.host.close(tab.context);
+		} catch (WebDriverException e) {
+			tab.host.broken = true; // the browser is gone: stop handing out its tabs
+		} finally {
+			free(tab.host);
+		}
+	}
+
+	/** Quits every browser. */
+	public void shutdown() {
+		hostsLock.lock();
+		try {
+			for (DriverContext.Session tab : leased.keySet()) // tabs still out: their contexts go with the browser
+				DriverContext.discard(tab.driver());
+			for (Host host : hosts) {
+				DriverContext.discard(host.browser);
+				try {
+					host.browser.quit();
+				} catch (RuntimeException ignored) {
+					// the session may already be gone
+				}
+			}
+			hosts.clear();
+			leased.clear();
+		} finally {
+			hostsLock.unlock();
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	// Fills browsers before starting new ones: memory is what this mode saves
+	private Host reserve() {
+		hostsLock.lock();
+		try {
+			for (Host host : hosts) {
+				if (!host.broken && host.tabs < perBrowser) {
+					host.tabs++;
+					return host;
+				}
+			}
+			return null;
+		} finally {
+			hostsLock.unlock();
+		}
+	}
+
+	private void free(Host host) {
+		hostsLock.lock();
+		try {
+			host.tabs--;
+			if (host.broken && host.tabs == 0) {
+				hosts.remove(host);
+				DriverContext.discard(host.browser);
+				try {
+					host.browser.quit();
+				} catch (RuntimeException ignored) {
+					// already gone
+				}
+			}
+		} finally {
+			hostsLock.unlock();
+		}
+	}
+
+	/** One browser process and the tabs it hosts. */
+	private static final class Host {
+		private final WebDriver browser;
+		private final ReentrantLock commands = new ReentrantLock(true); // fair: no tab starves
+		private String current; // guarded by commands
+		private int tabs; // guarded by hostsLock
+		private volatile boolean broken;
+
+		Host(WebDriver browser) {
+			this.browser = browser;
+			browser.manage().timeouts().implicitlyWait(Duration.ZERO); // a lookup must not hold the lock while it waits
+			this.current = browser.getWindowHandle(); // the first window stays open, keeping the session alive
+		}
+
+		Context open() {
+			commands.lock();
+			try {
+				if (browser instanceof HasCdp cdp) {
+					Set<String> before = new HashSet<>(browser.getWindowHandles());
+					String context = (String) cdp.executeCdpCommand("Target.createBrowserContext", Map.of())
+							.get("browserContextId");
+					cdp.executeCdpCommand("Target.createTarget", Map.of("url", "about:blank", "browserContextId", context));
+					// The new handle is the one that was not there before
+					Set<String> after = new HashSet<>(browser.getWindowHandles());
+					after.removeAll(before);
+					if (after.size() != 1)
+						throw new WebDriverException("Could not find the window of the new browser context");
+					return new Context(after.iterator().next(), context);
+				}
+				if (browser instanceof HasBiDi) {
+					String userContext = new Browser(browser).createUserContext();
+					BrowsingContext tab = new BrowsingContext(browser,
+							new CreateContextParameters(WindowType.TAB).userContext(userContext));
+					return new Context(tab.getId(), userContext);
+				}
+				throw new UnsupportedOperationException(
+						"driver.mode=tabs needs CDP (Chrome, Edge) or BiDi (Firefox): " + browser.getClass().getSimpleName());
+			} finally {
+				commands.unlock();
+			}
+		}
+
+		void close(Context tab) {
+			commands.lock();
+			try {
+				if (browser instanceof HasCdp cdp) {
+					// Closes the context's tabs as well
+					cdp.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", tab.id()));
+				} else {
+					new BrowsingContext(browser, tab.handle()).close();
+					new Browser(browser).removeUserContext(tab.id());
+				}
+				if (tab.handle().equals(current))
+					current = null;
+			} finally {
+				commands.unlock();
+			}
+		}
+
+		// Caller holds commands
+		void focus(String handle) {
+			if (!handle.equals(current)) {
+				browser.switchTo().window(handle);
+				current = handle;
+			}
+		}
+	}
+
+	/** A tab's window handle and the id of its browser (CDP) or user (BiDi) context. */
+	private record Context(String handle, String id) {
+	}
+
+	/** A test's tab and the driver bound to it. */
+	private final class Tab extends WebDriverDecorator<WebDriver> {
+		private final Host host;
+		private final Context context;
+		private final WebDriver driver;
+
+		Tab(Host host, Context context) {
+			this.host = host;
+			this.context = context;
+			this.driver = decorate(host.browser);
+		}
+
+		@Override
+		public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+			if (target.getOriginal() == host.browser && "quit".equals(method.getName())) {
+				if (leased.containsKey(new DriverContext.Session(driver)))
+					release(driver); // a test must not end the shared browser
+				return null;
+			}
+			host.commands.lock();
+			try {
+				host.focus(context.handle());
+				return super.call(target, method, args);
+			} finally {
+				host.commands.unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package frameworkAutomate.core;
+
+import frameworkAutomate.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves driver binaries (chromedriver, geckodriver, msedgedriver) once per
+ * browser per JVM and remembers the result on disk.
+ * <p>
+ * The on-disk cache maps the installed browser (binary path + modification
+ * time) to its version, and each browser version to the driver WebDriverManager
+ * downloaded for it. While the browser is not upgraded, later runs and forked
+ * JVMs point Selenium at the cached driver without version detection or
+ * network access. Set {@code driver.cache.enabled=false} to always delegate to
+ * WebDriverManager.
+ */
+public final class DriverBinaryCache {
+
+	// browser -> driver path; empty when WebDriverManager had none, so that outcome is not looked up again
+	private static final Map<String, Optional<String>> RESOLVED = new ConcurrentHashMap<>();
+	private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+	private DriverBinaryCache() {
+	}
+
+	/**
+	 * Makes the driver binary for the given browser available to Selenium,
+	 * resolving it at most once per JVM. When WebDriverManager reports no
+	 * driver path, nothing is exported and Selenium Manager finds the driver;
+	 * that outcome is remembered too. A resolution that throws is retried by
+	 * the next call.
+	 *
+	 * @param browser chrome, firefox or edge.
+	 */
+	public static void setup(String browser) {
+		Optional<String> path = RESOLVED.get(browser);
+		if (path == null) {
+			// Not computeIfAbsent: resolving may download, and would hold a bin of the map meanwhile
+			ReentrantLock lock = LOCKS.computeIfAbsent(browser, b -> new ReentrantLock());
+			lock.lock();
+			try {
+				path = RESOLVED.get(browser);
+				if (path == null) {
+					path = Optional.ofNullable(resolve(browser));
+					RESOLVED.put(browser, path);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		path.ifPresent(p -> System.setProperty(exportProperty(browser), p));
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private static String resolve(String browser) {
+		WebDriverManager wdm = manager(browser);
+		boolean enabled = Boolean.parseBoolean(ConfigReader.get("driver.cache.enabled", "true").trim());
+		String fingerprint = enabled ? fingerprint(wdm) : null;
+
+		if (fingerprint != null) {
+			Properties cache = load();
+			String version = cache.getProperty(browser + ".browser." + fingerprint);
+			String driverPath = version == null ? null : cache.getProperty(browser + ".driver." + version);
+			if (driverPath != null && Files.isExecutable(Path.of(driverPath)))
+				return driverPath;
+		}
+
+		wdm.setup();
+		String driverPath = wdm.getDownloadedDriverPath();
+		String version = wdm.getResolvedBrowserVersion();
+
+		if (fingerprint != null && driverPath != null && version != null)
+			store(Map.of(browser + ".browser." + fingerprint, version, browser + ".driver." + version, driverPath));
+		return driverPath;
+	}
+
+	private static WebDriverManager manager(String browser) {
+		return switch (browser) {
+		case "firefox" -> WebDriverManager.firefoxdriver();
+		case "edge" -> WebDriverManager.edgedriver();
+		default -> WebDriverManager.chromedriver();
+		};
+	}
+
+	private static String exportProperty(String browser) {
+		return switch (browser) {
+		case "firefox" -> "webdriver.gecko.driver";
+		case "edge" -> "webdriver.edge.driver";
+		default -> "webdriver.chrome.driver";
+		};
+	}
+
+	// Identifies the installed browser build without launching it
+	private static String fingerprint(WebDriverManager wdm) {
+		try {
+			Optional<Path> browserPath = wdm.getBrowserPath();
+			if (browserPath.isEmpty() || !Files.exists(browserPath.get()))
+				return null;
+			Path real = browserPath.get().toRealPath();
+			return Integer.toHexString(real.toString().hashCode()) + "-" + Files.getLastModifiedTime(real).toMillis();
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static Path cacheFile() {
+		String dir = ConfigReader.get("driver.cache.dir",
+				Path.of(System.getProperty("user.home"), ".cache", "selenium-framework").toString()).trim();
+		return Path.of(dir, "drivers.properties");
+	}
+
+	private static Properties load() {
+		Properties cache = new Properties();
+		Path file = cacheFile();
+		if (Files.exists(file)) {
+			try (InputStream in = Files.newInputStream(file)) {
+				cache.load(in);
+			} catch (IOException e) {
+				// a corrupt cache is the same as an empty one
+			}
+		}
+		return cache;
+	}
+
+	// Read-merge-write under a file lock, so concurrent surefire forks don't lose entries
+	private static void store(Map<String, String> entries) {
+		Path file = cacheFile();
+		try {
+			Files.createDirectories(file.getParent());
+			Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+			try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				channel.lock(); // released when the channel closes
+				Properties cache = load();
+				entries.forEach(cache::setProperty);
+
+				Path tmp = Files.createTempFile(file.getParent(), "drivers", ".tmp");
+				try (OutputStream out = Files.newOutputStream(tmp)) {
+					cache.store(out, "Resolved WebDriver binaries");
+				}
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+		} catch (IOException e) {
+			// the driver is already resolved for this JVM; the next run just resolves again
+		}
+	}
+}
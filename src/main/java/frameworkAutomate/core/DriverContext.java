@@ -0,0 +1,84 @@
+package frameworkAutomate.core;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Infrastructure shared by every page object of one browser session: the
+ * {@link Waits} (config read and {@link org.openqa.selenium.support.ui.WebDriverWait}
+ * built once per session) and the wait policy.
+ * <p>
+ * Contexts are created on first use and dropped by {@link #discard(WebDriver)}
+ * when the session is quit: {@link DriverFactory}, {@link DriverPool},
+ * {@link DriverPrespawner} and {@link BrowserTabs} do it for their sessions. A
+ * pooled session keeps its context across leases, since the driver itself does
+ * not change. Code that creates its own WebDriver and builds pages on it must
+ * call {@link #discard(WebDriver)} before quitting it, or the context stays in
+ * the map until the JVM exits.
+ */
+public final class DriverContext {
+
+	// Strong keys on purpose: the context's Waits holds the driver, so a weak key would never be cleared
+	private static final Map<Session, DriverContext> CONTEXTS = new ConcurrentHashMap<>();
+
+	private final Waits waits;
+	private final boolean explicitOnly;
+
+	private DriverContext(WebDriver driver) {
+		this.waits = new Waits(driver);
+		this.explicitOnly = WaitPolicy.current() == WaitPolicy.EXPLICIT;
+	}
+
+	/**
+	 * Returns the context of a session, creating it on first use.
+	 *
+	 * @param driver Parameter of type WebDriver.
+	 * @return The result of type DriverContext.
+	 */
+	public static DriverContext of(WebDriver driver) {
+		return CONTEXTS.computeIfAbsent(new Session(Objects.requireNonNull(driver, "driver cannot be null")),
+				s -> new DriverContext(s.driver()));
+	}
+
+	/** @return The waits of this session. */
+	public Waits waits() {
+		return waits;
+	}
+
+	/** @return true under {@code wait.policy=explicit}. */
+	public boolean explicitOnly() {
+		return explicitOnly;
+	}
+
+	/**
+	 * Drops the context and the network interceptors of a session. Call it
+	 * before {@code quit()}; later pages on the same driver get a new context.
+	 *
+	 * @param driver Parameter of type WebDriver.
+	 */
+	public static void discard(WebDriver driver) {
+		CONTEXTS.remove(new Session(driver));
+		NetworkInterception.uninstall(driver);
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	/**
+	 * Identity key: the drivers of {@link BrowserTabs} share one browser and
+	 * compare equal, yet each needs its own context.
+	 */
+	record Session(WebDriver driver) {
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Session s && s.driver == driver;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(driver);
+		}
+	}
+}
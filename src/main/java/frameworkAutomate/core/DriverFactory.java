@@ -1,7 +1,6 @@
 package frameworkAutomate.core;
 
 import frameworkAutomate.utils.ConfigReader;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -11,35 +10,209 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Creates and closes ONE single instance of WebDriver. Does not support
- * parallel execution.
+ * Creates and closes one WebDriver instance per thread, so every TestNG worker
+ * owns an isolated browser session and the suite can run in parallel.
+ * <p>
+ * {@code driver.mode} selects where sessions come from: {@code fresh} launches
+ * a browser per test and quits it afterwards; {@code pool} leases warm
+ * sessions from a {@link DriverPool} and returns them after a reset;
+ * {@code prespawn} launches a browser per test like {@code fresh}, but builds it
+ * in the background while the previous test runs ({@link DriverPrespawner});
+ * {@code tabs} gives each test a tab with its own browser context in a shared
+ * browser ({@link BrowserTabs}).
  */
 public class DriverFactory {
 
-	private static WebDriver driver; // single instance
+	private static final String MODE = ConfigReader.get("driver.mode", "fresh").trim();
+	private static final NetworkRules NETWORK = NetworkRules.fromConfig();
 
-	/** Returns the instance if it exists; if not, creates it. */
+	private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>(); // one instance per thread
+	private static final Set<WebDriver> ACTIVE = ConcurrentHashMap.newKeySet();
+	private static final ThreadLocal<DriverPrespawner.Handover> HANDOVER = new ThreadLocal<>();
+	// Not a monitor: creating the pool starts browsers, which would pin a virtual thread's carrier
+	private static final ReentrantLock INIT = new ReentrantLock();
+	private static volatile DriverPool pool;
+	private static volatile DriverPrespawner prespawner;
+	private static volatile BrowserTabs tabs;
+	private static volatile Optional<TrafficArchive> traffic; // one recording per run, opened with the first session
+
+	static {
+		// Safety net for sessions whose thread never reached quitDriver()
+		Runtime.getRuntime().addShutdownHook(new Thread(DriverFactory::quitAll, "driver-factory-shutdown"));
+	}
+
+	/** Returns the instance of the current thread if it exists; if not, creates it. */
 	public static WebDriver getDriver() {
-		if (driver == null)
-			driver = createDriver();
+		WebDriver driver = DRIVER.get();
+		if (driver == null) {
+			driver = acquire();
+			DRIVER.set(driver);
+		}
 		return driver;
 	}
 
-	/** Closes the instance and "deletes" it. */
+	/**
+	 * Closes the instance of the current thread and "deletes" it. In pool mode
+	 * the session goes back to the pool instead of being quit.
+	 */
 	public static void quitDriver() {
+		HANDOVER.remove(); // it holds the driver; listeners have read it by now
+		WebDriver driver = DRIVER.get();
 		if (driver != null) {
-			driver.quit();
-			driver = null;
+			DRIVER.remove();
+			release(driver);
 		}
 	}
 
+	/**
+	 * Returns how the last session of the current thread was handed over in
+	 * prespawn mode, so reports can show the startup time hidden behind the
+	 * previous test.
+	 *
+	 * @return The hand-over of the current session, or null outside prespawn
+	 *         mode and after {@link #quitDriver()}.
+	 */
+	public static DriverPrespawner.Handover getLastHandover() {
+		return HANDOVER.get();
+	}
+
 	/* ---------------- PRIVATE ---------------- */
-	private static WebDriver createDriver() {
+	private static WebDriver acquire() {
+		switch (MODE) {
+		case "pool" -> {
+			return pool().lease();
+		}
+		case "tabs" -> {
+			return tabs().lease();
+		}
+		case "prespawn" -> {
+			DriverPrespawner.Handover handover = prespawner().take();
+			HANDOVER.set(handover);
+			ACTIVE.add(handover.driver());
+			return handover.driver();
+		}
+		default -> { // fresh
+			WebDriver driver = createDriver();
+			ACTIVE.add(driver);
+			return driver;
+		}
+		}
+	}
+
+	private static void release(WebDriver driver) {
+		switch (MODE) {
+		case "pool" -> pool().release(driver);
+		case "tabs" -> tabs().release(driver);
+		default -> { // fresh, prespawn
+			ACTIVE.remove(driver);
+			DriverContext.discard(driver);
+			driver.quit();
+		}
+		}
+	}
+
+	private static DriverPool pool() {
+		DriverPool p = pool;
+		if (p == null) {
+			INIT.lock();
+			try {
+				p = pool;
+				if (p == null)
+					pool = p = new DriverPool(DriverFactory::createDriver);
+			} finally {
+				INIT.unlock();
+			}
+		}
+		return p;
+	}
 
+	private static BrowserTabs tabs() {
+		BrowserTabs t = tabs;
+		if (t == null) {
+			INIT.lock();
+			try {
+				t = tabs;
+				if (t == null)
+					tabs = t = new BrowserTabs(DriverFactory::createDriver);
+			} finally {
+				INIT.unlock();
+			}
+		}
+		return t;
+	}
+
+	// Opened on first use, not in the static initializer, so a bad traffic setting fails the test that
+	// needs a browser with its own message instead of an ExceptionInInitializerError
+	private static TrafficArchive traffic() {
+		Optional<TrafficArchive> t = traffic;
+		if (t == null) {
+			INIT.lock();
+			try {
+				t = traffic;
+				if (t == null)
+					traffic = t = Optional.ofNullable(TrafficArchive.fromConfig());
+			} finally {
+				INIT.unlock();
+			}
+		}
+		return t.orElse(null);
+	}
+
+	private static DriverPrespawner prespawner() {
+		DriverPrespawner p = prespawner;
+		if (p == null) {
+			INIT.lock();
+			try {
+				p = prespawner;
+				if (p == null)
+					prespawner = p = new DriverPrespawner(DriverFactory::createDriver);
+			} finally {
+				INIT.unlock();
+			}
+		}
+		return p;
+	}
+
+	private static void quitAll() {
+		DriverPrespawner s = prespawner;
+		if (s != null)
+			s.shutdown();
+
+		for (WebDriver driver : ACTIVE) {
+			DriverContext.discard(driver);
+			try {
+				driver.quit();
+			} catch (RuntimeException ignored) {
+				// the session may already be gone
+			}
+		}
+		ACTIVE.clear();
+
+		DriverPool p = pool;
+		if (p != null)
+			p.shutdown();
+
+		BrowserTabs t = tabs;
+		if (t != null)
+			t.shutdown();
+
+		Optional<TrafficArchive> tr = traffic;
+		if (tr != null)
+			tr.ifPresent(TrafficArchive::close); // writes the index of a recording
+	}
+
+	// Package-private for tests that build their own sessions (BrowserTabsTest)
+	static WebDriver createDriver() {
+
+		TrafficArchive archive = traffic();
 		String browser = ConfigReader.get("browser");
-		int implicitSec = ConfigReader.getInt("implicit.timeout", 5);
+		int implicitSec = WaitPolicy.current().implicitSeconds(ConfigReader.getInt("implicit.timeout", 5));
 
 		boolean headlessCfg = Boolean.parseBoolean(ConfigReader.get("headless", "false"));
 		boolean headless = headlessCfg || "true".equalsIgnoreCase(System.getenv("CI"));
@@ -48,18 +221,20 @@ public class DriverFactory {
 
 		switch (browser) {
 		case "firefox" -> {
-			WebDriverManager.firefoxdriver().setup();
+			DriverBinaryCache.setup("firefox");
 			FirefoxOptions fOpts = new FirefoxOptions();
 			if (headless)
 				fOpts.addArguments("-headless");
+			if (!NETWORK.isEmpty() || archive != null || "tabs".equals(MODE))
+				fOpts.enableBiDi(); // BiDi intercepts (network rules, replay) and user contexts (tabs)
 			drv = new FirefoxDriver(fOpts);
 		}
 		case "edge" -> {
-			WebDriverManager.edgedriver().setup();
+			DriverBinaryCache.setup("edge");
 			drv = new EdgeDriver();
 		}
 		default -> { // chrome
-			WebDriverManager.chromedriver().setup();
+			DriverBinaryCache.setup("chrome");
 			ChromeOptions cOpts = new ChromeOptions();
 
 			if (headless) {
@@ -71,7 +246,13 @@ public class DriverFactory {
 		}
 
 		drv.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitSec));
+		if ("observer".equalsIgnoreCase(ConfigReader.get("wait.engine", "polling").trim())) {
+			// Observer waits run as one async script: it must outlive the explicit timeout
+			int explicitSec = ConfigReader.getInt("explicit.timeout", 10);
+			drv.manage().timeouts().scriptTimeout(Duration.ofSeconds(explicitSec + 5L));
+		}
 		drv.manage().window().setSize(new Dimension(1920, 1080));
+		NetworkInterception.install(drv, NETWORK, archive);
 		return drv;
 	}
-}
\ No newline at end of file
+}
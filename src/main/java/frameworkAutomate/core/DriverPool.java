@@ -0,0 +1,252 @@
+package frameworkAutomate.core;
+
+import frameworkAutomate.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm WebDriver sessions.
+ * <p>
+ * A test leases a session instead of launching a browser and hands it back
+ * when it finishes. On return the session is reset (cookies, storage, extra
+ * windows, about:blank) and parked for the next lease. Sessions are retired
+ * after {@code driver.pool.max.uses} leases, when they fail a health check, or
+ * when they stay idle longer than {@code driver.pool.idle.timeout}.
+ * <p>
+ * On Chromium the reset goes through CDP: {@code Network.clearBrowserCookies}
+ * drops the cookies of every domain, and {@code Storage.clearDataForOrigin}
+ * clears local storage, IndexedDB and caches of the origin the test finished
+ * on. Other browsers only get the cookies of the current domain and the Web
+ * Storage of the current origin cleared through WebDriver.
+ */
+public class DriverPool {
+
+	private static final String RESET_STORAGE = "try { window.localStorage.clear(); } catch (e) {}"
+			+ "try { window.sessionStorage.clear(); } catch (e) {}";
+	private static final String CDP_STORAGE_TYPES = "local_storage,indexeddb,cache_storage,service_workers,websql,file_systems";
+
+	private final Supplier<WebDriver> factory;
+	private final int maxSize;
+	private final int maxUses;
+	private final Duration idleTimeout;
+	private final Duration leaseTimeout;
+
+	private final Semaphore leases;
+	private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+	private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService evictor;
+
+	public DriverPool(Supplier<WebDriver> factory) {
+		this.factory = Objects.requireNonNull(factory, "factory cannot be null");
+
+		this.maxSize = ConfigReader.getInt("driver.pool.max.size", 5);
+		this.maxUses = ConfigReader.getInt("driver.pool.max.uses", 50);
+		this.idleTimeout = Duration.ofSeconds(ConfigReader.getInt("driver.pool.idle.timeout", 120));
+		this.leaseTimeout = Duration.ofSeconds(ConfigReader.getInt("driver.pool.lease.timeout", 60));
+
+		this.leases = new Semaphore(maxSize, true);
+
+		this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "driver-pool-evictor");
+			t.setDaemon(true);
+			return t;
+		});
+		long period = Math.max(1, idleTimeout.toMillis() / 2);
+		evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+
+		prewarm(Math.min(maxSize, ConfigReader.getInt("driver.pool.prewarm", 0)));
+	}
+
+	/**
+	 * Leases a healthy session, reusing an idle one when available and
+	 * launching a new one otherwise.
+	 *
+	 * @return The leased WebDriver.
+	 * @throws IllegalStateException if no session frees up within
+	 *                               {@code driver.pool.lease.timeout}.
+	 */
+	public WebDriver lease() {
+		try {
+			if (!leases.tryAcquire(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS))
+				throw new IllegalStateException(
+						String.format("No WebDriver session available after %s (pool size %d)", leaseTimeout, maxSize));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a WebDriver session", e);
+		}
+
+		try {
+			PooledSession session;
+			while ((session = idle.pollFirst()) != null) { // most recently used first: warmest caches
+				if (isHealthy(session.driver))
+					break;
+				destroy(session);
+			}
+			if (session == null)
+				session = open();
+
+			leased.put(session.driver, session);
+			return session.driver;
+		} catch (RuntimeException e) {
+			leases.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a leased session to the pool after a cheap reset, or retires it
+	 * if it reached its use limit or cannot be reset.
+	 *
+	 * @param driver A driver obtained from {@link #lease()}.
+	 */
+	public void release(WebDriver driver) {
+		PooledSession session = leased.remove(driver);
+		if (session == null) { // not ours: behave like a plain quit
+			DriverContext.discard(driver);
+			driver.quit();
+			return;
+		}
+
+		try {
+			session.uses++;
+			if (session.uses >= maxUses || !reset(session)) {
+				destroy(session);
+			} else {
+				session.lastReturned = System.nanoTime();
+				idle.offerFirst(session);
+			}
+		} finally {
+			leases.release();
+		}
+	}
+
+	/** Quits every idle and leased session and stops the evictor. */
+	public void shutdown() {
+		evictor.shutdownNow();
+		PooledSession session;
+		while ((session = idle.pollFirst()) != null)
+			destroy(session);
+		leased.values().forEach(this::destroy);
+		leased.clear();
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private void prewarm(int count) {
+		for (int i = 0; i < count; i++) {
+			PooledSession session = open();
+			session.lastReturned = System.nanoTime();
+			idle.offerLast(session);
+		}
+	}
+
+	private PooledSession open() {
+		WebDriver driver = factory.get();
+		try {
+			return new PooledSession(driver);
+		} catch (WebDriverException e) { // no window to record: the browser is unusable
+			DriverContext.discard(driver);
+			driver.quit();
+			throw e;
+		}
+	}
+
+	private boolean reset(PooledSession session) {
+		WebDriver driver = session.driver;
+		try {
+			// Keep only the window the session started with; tests that opened tabs must not leak them
+			Set<String> handles = driver.getWindowHandles();
+			if (!handles.contains(session.window))
+				return false; // the test closed it: retire the session
+			for (String handle : handles) {
+				if (!handle.equals(session.window)) {
+					driver.switchTo().window(handle);
+					driver.close();
+				}
+			}
+			driver.switchTo().window(session.window);
+			if (driver instanceof HasCdp cdp) {
+				cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+				String origin = origin(driver.getCurrentUrl());
+				if (origin != null)
+					cdp.executeCdpCommand("Storage.clearDataForOrigin",
+							Map.of("origin", origin, "storageTypes", CDP_STORAGE_TYPES));
+			} else {
+				driver.manage().deleteAllCookies();
+			}
+			// sessionStorage belongs to the tab, so CDP does not clear it: this clears the one the test finished on
+			((JavascriptExecutor) driver).executeScript(RESET_STORAGE);
+			driver.get("about:blank");
+			return true;
+		} catch (WebDriverException e) {
+			return false;
+		}
+	}
+
+	// scheme://host[:port] of an http(s) URL, null for about:blank and the like
+	private static String origin(String url) {
+		try {
+			URI uri = URI.create(url);
+			if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme()))
+				return null;
+			return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private boolean isHealthy(WebDriver driver) {
+		try {
+			driver.getWindowHandle();
+			return true;
+		} catch (WebDriverException e) {
+			return false;
+		}
+	}
+
+	private void evictIdle() {
+		long limit = idleTimeout.toNanos();
+		long now = System.nanoTime();
+		for (PooledSession session : idle) {
+			if (now - session.lastReturned >= limit && idle.remove(session))
+				destroy(session);
+		}
+	}
+
+	private void destroy(PooledSession session) {
+		DriverContext.discard(session.driver);
+		try {
+			session.driver.quit();
+		} catch (WebDriverException ignored) {
+			// the session is already dead
+		}
+	}
+
+	/** A pooled browser plus its bookkeeping. */
+	private static final class PooledSession {
+		private final WebDriver driver;
+		private final String window; // the handle the browser opened with, kept by every reset
+		private int uses;
+		private volatile long lastReturned;
+
+		private PooledSession(WebDriver driver) {
+			this.driver = driver;
+			this.window = driver.getWindowHandle();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package frameworkAutomate.core;
+
+import frameworkAutomate.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Look-ahead session builder.
+ * <p>
+ * Keeps {@code driver.prespawn.depth} browsers starting in the background. When
+ * a test takes one, the next is scheduled right away, so its startup overlaps
+ * with the execution of the current test and setup only pays for a hand-over.
+ */
+public class DriverPrespawner {
+
+	private static final Logger LOG = Logger.getLogger(DriverPrespawner.class.getName());
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30); // a browser launch, with margin
+
+	private final Supplier<WebDriver> factory;
+	private final LinkedBlockingQueue<Spawn> ready = new LinkedBlockingQueue<>();
+	private final ExecutorService builders;
+	private volatile boolean closed;
+
+	public DriverPrespawner(Supplier<WebDriver> factory) {
+		this.factory = Objects.requireNonNull(factory, "factory cannot be null");
+
+		int depth = Math.max(1, ConfigReader.getInt("driver.prespawn.depth", 1));
+		AtomicInteger seq = new AtomicInteger();
+		this.builders = Executors.newFixedThreadPool(depth, r -> {
+			Thread t = new Thread(r, "driver-prespawn-" + seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+
+		for (int i = 0; i < depth; i++)
+			schedule();
+	}
+
+	/**
+	 * Hands over a pre-built session and schedules the next one. Falls back to
+	 * a synchronous launch when nothing is queued or the background build
+	 * failed.
+	 *
+	 * @return The driver and how much of its startup was hidden from the caller.
+	 */
+	public Handover take() {
+		Spawn spawn = ready.poll();
+		schedule();
+
+		if (spawn != null) {
+			long t0 = System.nanoTime();
+			try {
+				WebDriver driver = spawn.future.join();
+				if (driver != null) // null only once shut down
+					return new Handover(driver, Duration.ofNanos(spawn.buildNanos),
+							Duration.ofNanos(System.nanoTime() - t0));
+			} catch (CompletionException e) {
+				// background launch failed: retry on the caller's thread below
+			}
+		}
+
+		long t0 = System.nanoTime();
+		WebDriver driver = factory.get();
+		Duration startup = Duration.ofNanos(System.nanoTime() - t0);
+		return new Handover(driver, startup, startup);
+	}
+
+	/**
+	 * Stops building and quits every session nobody took. Launches already
+	 * under way are not interrupted, which could orphan the browser process:
+	 * they are waited for, up to 30 seconds, and quit.
+	 */
+	public void shutdown() {
+		closed = true;
+		builders.shutdown(); // queued launches see closed and return at once
+		List<CompletableFuture<Void>> quits = new ArrayList<>();
+		Spawn spawn;
+		while ((spawn = ready.poll()) != null)
+			quits.add(spawn.future.thenAccept(DriverPrespawner::quietQuit));
+		try {
+			CompletableFuture.allOf(quits.toArray(CompletableFuture[]::new)).get(SHUTDOWN_TIMEOUT.toMillis(),
+					TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (TimeoutException e) {
+			LOG.warning(() -> "Stopped waiting for browsers still starting after " + SHUTDOWN_TIMEOUT.toSeconds()
+					+ " s: each quits itself if its launch completes before the JVM exits");
+		} catch (ExecutionException e) {
+			// a failed launch left no session to quit
+		}
+		builders.shutdownNow();
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private void schedule() {
+		if (closed)
+			return;
+		Spawn spawn = new Spawn();
+		try {
+			spawn.future = CompletableFuture.supplyAsync(() -> {
+				if (closed)
+					return null; // queued when the prespawner shut down: nothing was launched
+				long t0 = System.nanoTime();
+				WebDriver driver = factory.get();
+				spawn.buildNanos = System.nanoTime() - t0;
+				if (closed) { // shut down while launching: nobody will take it
+					quietQuit(driver);
+					return null;
+				}
+				return driver;
+			}, builders);
+		} catch (RejectedExecutionException e) {
+			return; // shut down concurrently
+		}
+		ready.offer(spawn);
+	}
+
+	private static void quietQuit(WebDriver driver) {
+		if (driver == null)
+			return;
+		DriverContext.discard(driver);
+		try {
+			driver.quit();
+		} catch (WebDriverException ignored) {
+			// the session is already dead
+		}
+	}
+
+	private static final class Spawn {
+		private CompletableFuture<WebDriver> future;
+		private volatile long buildNanos;
+	}
+
+	/**
+	 * A session handed to a test.
+	 *
+	 * @param driver  The ready driver.
+	 * @param startup How long the browser took to start.
+	 * @param waited  How long the caller actually blocked for it.
+	 */
+	public record Handover(WebDriver driver, Duration startup, Duration waited) {
+
+		/** Startup time that overlapped with the previous test instead of blocking setup. */
+		public Duration saved() {
+			Duration saved = startup.minus(waited);
+			return saved.isNegative() ? Duration.ZERO : saved;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package frameworkAutomate.core;
+
+/**
+ * Snapshot of an element read in a single script call by
+ * {@link BasePage#readStates(org.openqa.selenium.By...)}.
+ *
+ * @param present Whether the locator matched an element.
+ * @param visible Whether the element is rendered (display, visibility,
+ *                opacity and size).
+ * @param enabled Whether the element is not disabled.
+ * @param text    The rendered text, trimmed; empty if not visible.
+ * @param value   The value of form controls; null for other elements.
+ */
+public record ElementState(boolean present, boolean visible, boolean enabled, String text, String value) {
+
+	/** State of a locator that matched nothing. */
+	public static final ElementState ABSENT = new ElementState(false, false, false, "", null);
+}
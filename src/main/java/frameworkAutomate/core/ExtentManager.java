@@ -1,5 +1,6 @@
 package frameworkAutomate.core;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -8,17 +9,21 @@ import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 
 public class ExtentManager {
 
-	private static final ExtentReports extent = createInstance();
+	private static final String TIME_STAMP = LocalDateTime.now()
+			.format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
 
-	private static ExtentReports createInstance() {
-		String timeStamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+	// Built on first use, so the incremental report mode never holds a Spark report in memory
+	private static final class Holder {
+		private static final ExtentReports EXTENT = createInstance();
+	}
 
-		String reportPath = "reports/AutomationReport_" + timeStamp + ".html";
+	private static ExtentReports createInstance() {
+		String reportPath = reportFile("html").toString();
 		// Specify the path where the report will be saved
 		ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
 
 		spark.config().setDocumentTitle("Automation Test Results");
-		spark.config().setReportName("Test execution " + timeStamp);
+		spark.config().setReportName(reportName());
 
 		ExtentReports ext = new ExtentReports();
 
@@ -30,7 +35,23 @@ public class ExtentManager {
 	}
 
 	public static ExtentReports getExtent() {
-		return extent;
+		return Holder.EXTENT;
+	}
+
+	/**
+	 * Returns the path of this run's report with the given extension, e.g.
+	 * reports/AutomationReport_2024-01-31_10-00-00.html.
+	 *
+	 * @param extension Parameter of type String, without the dot.
+	 * @return The result of type Path.
+	 */
+	public static Path reportFile(String extension) {
+		return Path.of("reports", "AutomationReport_" + TIME_STAMP + "." + extension);
+	}
+
+	/** @return The title used by every report of this run. */
+	public static String reportName() {
+		return "Test execution " + TIME_STAMP;
 	}
 
 }
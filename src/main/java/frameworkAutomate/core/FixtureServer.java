@@ -0,0 +1,174 @@
+package frameworkAutomate.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * In-process HTTP server on the loopback interface that serves fixture pages
+ * from the classpath, so pages can be exercised without the real site.
+ * <p>
+ * A request for {@code /file.ext} is answered with the classpath resource
+ * {@code <root>/file.ext}, and {@code /path} with {@code <root>/path.html} or
+ * {@code <root>/path/index.html}; {@code /} serves {@code <root>/index.html}. Every
+ * response can be delayed by a fixed latency to imitate a remote server.
+ * Resources are read once and kept in memory.
+ */
+public final class FixtureServer implements AutoCloseable {
+
+	private static final byte[] NOT_FOUND = new byte[0];
+
+	private final String root;
+	private final Duration latency;
+	private final HttpServer server;
+	private final ExecutorService workers;
+	private final Map<String, byte[]> cache = new ConcurrentHashMap<>();
+	private final Map<String, String> types = new ConcurrentHashMap<>();
+
+	/**
+	 * Starts a server on a free port.
+	 *
+	 * @param root    Classpath directory of the fixtures, e.g. fixtures/demoqa.
+	 * @param latency Delay added to every response; zero for none.
+	 */
+	public FixtureServer(String root, Duration latency) {
+		this(root, latency, 0);
+	}
+
+	/**
+	 * Starts a server on the given port.
+	 *
+	 * @param root    Classpath directory of the fixtures.
+	 * @param latency Delay added to every response; zero for none.
+	 * @param port    The port, or 0 for any free one.
+	 */
+	public FixtureServer(String root, Duration latency, int port) {
+		this.root = root.endsWith("/") ? root.substring(0, root.length() - 1) : root;
+		this.latency = latency;
+		try {
+			this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 64);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		AtomicInteger seq = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(8, r -> {
+			Thread t = new Thread(r, "fixture-server-" + seq.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		server.setExecutor(workers);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	/**
+	 * Starts the stand-in server described in config.properties:
+	 * {@code standin.fixtures} (classpath directory, default fixtures/demoqa),
+	 * {@code standin.latency} (ms added to every response, default 0) and
+	 * {@code standin.port} (default 0, any free port).
+	 *
+	 * @return The running server.
+	 */
+	public static FixtureServer fromConfig() {
+		return new FixtureServer(ConfigReader.get("standin.fixtures", "fixtures/demoqa").trim(),
+				Duration.ofMillis(ConfigReader.getInt("standin.latency", 0)), ConfigReader.getInt("standin.port", 0));
+	}
+
+	/** @return The base URL, with a trailing slash, e.g. http://127.0.0.1:41234/. */
+	public String baseUrl() {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+	}
+
+	/** Stops the server at once. */
+	@Override
+	public void close() {
+		server.stop(0);
+		workers.shutdownNow();
+		try {
+			workers.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!latency.isZero()) {
+				try {
+					Thread.sleep(latency.toMillis());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			String path = exchange.getRequestURI().getPath();
+			byte[] body = path.contains("..") ? NOT_FOUND : cache.computeIfAbsent(path, this::load);
+			if (body == NOT_FOUND) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", types.get(path));
+			exchange.getResponseHeaders().set("Cache-Control", "no-store");
+			boolean head = "HEAD".equals(exchange.getRequestMethod());
+			exchange.sendResponseHeaders(200, head ? -1 : body.length);
+			if (!head) {
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+		}
+	}
+
+	private byte[] load(String path) {
+		String relative = path.replaceAll("^/+|/+$", "");
+		String name = relative.substring(relative.lastIndexOf('/') + 1);
+		// Directories are never opened as resources: some class loaders return their listing
+		String[] candidates = relative.isEmpty() ? new String[] { "index.html" }
+				: name.contains(".") ? new String[] { relative }
+						: new String[] { relative + ".html", relative + "/index.html" };
+		for (String candidate : candidates) {
+			try (InputStream in = FixtureServer.class.getClassLoader().getResourceAsStream(root + "/" + candidate)) {
+				if (in != null) {
+					types.put(path, contentType(candidate));
+					return in.readAllBytes();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return NOT_FOUND;
+	}
+
+	private static String contentType(String name) {
+		String ext = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+		return switch (ext) {
+		case "html", "htm" -> "text/html; charset=utf-8";
+		case "js" -> "application/javascript";
+		case "css" -> "text/css";
+		case "json" -> "application/json";
+		case "txt" -> "text/plain; charset=utf-8";
+		case "svg" -> "image/svg+xml";
+		case "png" -> "image/png";
+		case "jpg", "jpeg" -> "image/jpeg";
+		default -> "application/octet-stream";
+		};
+	}
+}
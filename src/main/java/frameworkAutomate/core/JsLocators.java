@@ -0,0 +1,79 @@
+package frameworkAutomate.core;
+
+import java.util.List;
+
+import org.openqa.selenium.By;
+
+/**
+ * Translates Selenium locators into arguments for in-page scripts, so several
+ * lookups can be answered by a single {@code executeScript} round-trip.
+ */
+final class JsLocators {
+
+	/**
+	 * JavaScript helpers resolving a {@code [using, value]} pair the same way the
+	 * driver would: {@code __findAll(spec)} returns every match and
+	 * {@code __find(spec)} the first one or null.
+	 */
+	static final String FUNCTIONS = """
+			function __findAll(spec) {
+			  var using = spec[0], value = spec[1];
+			  switch (using) {
+			    case 'css selector': return Array.prototype.slice.call(document.querySelectorAll(value));
+			    case 'id': return Array.prototype.slice.call(document.querySelectorAll('[id="' + CSS.escape(value) + '"]'));
+			    case 'name': return Array.prototype.slice.call(document.getElementsByName(value));
+			    case 'class name': return Array.prototype.slice.call(document.getElementsByClassName(value));
+			    case 'tag name': return Array.prototype.slice.call(document.getElementsByTagName(value));
+			    case 'xpath':
+			      var snap = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+			      var nodes = [];
+			      for (var i = 0; i < snap.snapshotLength; i++) nodes.push(snap.snapshotItem(i));
+			      return nodes;
+			    case 'link text':
+			    case 'partial link text':
+			      return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {
+			        var text = (a.innerText || '').trim();
+			        return using === 'link text' ? text === value : text.indexOf(value) >= 0;
+			      });
+			    default: throw new Error('Unsupported locator strategy: ' + using);
+			  }
+			}
+			function __find(spec) { var all = __findAll(spec); return all.length ? all[0] : null; }
+			function __visible(el) {
+			  if (!el || !el.isConnected) return false;
+			  var style = window.getComputedStyle(el);
+			  if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') return false;
+			  var rect = el.getBoundingClientRect();
+			  return rect.width > 0 && rect.height > 0;
+			}
+			""";
+
+	private JsLocators() {
+	}
+
+	/**
+	 * Tells whether a locator can be evaluated by {@link #FUNCTIONS}.
+	 *
+	 * @param locator Parameter of type By.
+	 * @return true for standard single-strategy locators.
+	 */
+	static boolean supports(By locator) {
+		return locator instanceof By.Remotable remotable && remotable.getRemoteParameters().value() instanceof String;
+	}
+
+	/**
+	 * Returns the {@code [using, value]} pair of a locator.
+	 *
+	 * @param locator A standard locator (id, name, class name, css, xpath, tag
+	 *                name, link text).
+	 * @return The pair to pass as a script argument.
+	 * @throws IllegalArgumentException for composite locators (ByChained, ByAll,
+	 *                                  relative locators).
+	 */
+	static List<String> toSpec(By locator) {
+		if (!supports(locator))
+			throw new IllegalArgumentException("Locator cannot be evaluated in the page: " + locator);
+		By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+		return List.of(params.using(), (String) params.value());
+	}
+}
@@ -0,0 +1,219 @@
+package frameworkAutomate.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+/**
+ * Renders the append-only JSON Lines report of {@code report.mode=incremental}
+ * as a standalone HTML page.
+ * <p>
+ * Each line of the source is one finished test:
+ * {@code {"name", "description", "status", "start", "durationMs", "events":
+ * [{"time", "status", "details"}], "screenshots": [...], "droppedEvents"}}.
+ * Lines of the form {@code {"summary": title, "lines": [...]}} are run-level
+ * summaries, shown as preformatted text below the tests.
+ * The file is streamed twice (totals, then rows), so rendering needs memory
+ * for one test at a time whatever the size of the suite. A truncated last line,
+ * left by a JVM that died while writing, is skipped.
+ * <p>
+ * After a crashed run the report can still be produced from the command line:
+ * {@code java -cp <project classpath> frameworkAutomate.core.JsonLinesReport reports/AutomationReport_<ts>.jsonl}
+ */
+public final class JsonLinesReport {
+
+	private static final Json JSON = new Json();
+	private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+			.withZone(ZoneId.systemDefault());
+
+	private JsonLinesReport() {
+	}
+
+	/**
+	 * Renders the HTML next to the source, replacing the .jsonl extension.
+	 *
+	 * @param args The source file, and optionally the HTML target.
+	 */
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			System.err.println("Usage: JsonLinesReport <report.jsonl> [report.html]");
+			System.exit(2);
+		}
+		Path source = Path.of(args[0]);
+		Path html = args.length > 1 ? Path.of(args[1]) : htmlFor(source);
+		render(source, html, source.getFileName().toString());
+		System.out.println("Report written to " + html);
+	}
+
+	/**
+	 * Performs the 'htmlFor' operation.
+	 *
+	 * @param source Parameter of type Path.
+	 * @return The HTML path used by default for the given JSON Lines file.
+	 */
+	public static Path htmlFor(Path source) {
+		String name = source.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		return source.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".html");
+	}
+
+	/**
+	 * Renders the report. The HTML is written to a temporary file and moved
+	 * into place, so a reader never sees a half-written page.
+	 *
+	 * @param source The JSON Lines file.
+	 * @param html   The page to write.
+	 * @param title  The report title.
+	 */
+	public static void render(Path source, Path html, String title) {
+		Map<String, Integer> totals = new TreeMap<>();
+		List<Map<String, Object>> summaries = new ArrayList<>();
+		forEachLine(source, line -> {
+			if (line.containsKey("summary"))
+				summaries.add(line);
+			else
+				totals.merge(String.valueOf(line.get("status")), 1, Integer::sum);
+		});
+
+		try {
+			Path dir = html.toAbsolutePath().getParent();
+			Files.createDirectories(dir);
+			Path tmp = Files.createTempFile(dir, "report", ".tmp");
+			try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				writeHeader(out, title, totals);
+				forEachLine(source, line -> {
+					try {
+						if (!line.containsKey("summary"))
+							writeTest(out, line, dir);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				out.write("</table>\n");
+				for (Map<String, Object> summary : summaries) {
+					out.write("<h2>" + escape(summary.get("summary")) + "</h2>\n<pre>");
+					for (Object row : list(summary.get("lines")))
+						out.write(escape(row) + "\n");
+					out.write("</pre>\n");
+				}
+				out.write("</body>\n</html>\n");
+			}
+			Files.move(tmp, html, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private static void forEachLine(Path source, Consumer<Map<String, Object>> action) {
+		try (BufferedReader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.isBlank())
+					continue;
+				Map<String, Object> test;
+				try {
+					test = JSON.toType(line, Json.MAP_TYPE);
+				} catch (JsonException e) {
+					continue; // partial line of an interrupted run
+				}
+				action.accept(test);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeHeader(BufferedWriter out, String title, Map<String, Integer> totals)
+			throws IOException {
+		int all = totals.values().stream().mapToInt(Integer::intValue).sum();
+		out.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Automation Test Results</title>\n");
+		out.write("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse;width:100%}"
+				+ "td,th{border:1px solid #ddd;padding:4px 8px;vertical-align:top;text-align:left}"
+				+ ".pass{color:#2e7d32}.fail{color:#c62828}.skip{color:#ef6c00}.warning{color:#f9a825}"
+				+ ".info{color:#1565c0}details ul{margin:4px 0}img{max-width:480px}</style>\n</head>\n<body>\n");
+		out.write("<h1>" + escape(title) + "</h1>\n<p>" + all + " tests");
+		for (Map.Entry<String, Integer> total : totals.entrySet())
+			out.write(" &middot; <span class=\"" + escape(total.getKey()) + "\">" + total.getValue() + " "
+					+ escape(total.getKey()) + "</span>");
+		out.write("</p>\n<table>\n<tr><th>Test</th><th>Status</th><th>Start</th><th>Duration</th><th>Steps</th></tr>\n");
+	}
+
+	private static void writeTest(BufferedWriter out, Map<String, Object> test, Path reportDir) throws IOException {
+		String status = String.valueOf(test.get("status"));
+		out.write("<tr><td>" + escape(test.get("name")));
+		if (test.get("description") != null)
+			out.write("<br><small>" + escape(test.get("description")) + "</small>");
+		out.write("</td><td class=\"" + escape(status) + "\">" + escape(status) + "</td><td>"
+				+ time(test.get("start")) + "</td><td>" + escape(test.get("durationMs")) + " ms</td><td><details>"
+				+ "<summary>steps</summary><ul>\n");
+
+		for (Object item : list(test.get("events"))) {
+			Map<?, ?> event = (Map<?, ?>) item;
+			out.write("<li><span class=\"" + escape(event.get("status")) + "\">" + escape(event.get("status"))
+					+ "</span> " + time(event.get("time")) + " <pre>" + escape(event.get("details")) + "</pre></li>\n");
+		}
+		Object dropped = test.get("droppedEvents");
+		if (dropped instanceof Number n && n.longValue() > 0)
+			out.write("<li>&hellip; " + n + " more steps not kept</li>\n");
+		out.write("</ul></details>");
+
+		for (Object shot : list(test.get("screenshots"))) {
+			String link = relativize(reportDir, String.valueOf(shot));
+			out.write("<a href=\"" + escape(link) + "\"><img src=\"" + escape(link) + "\"></a>");
+		}
+		out.write("</td></tr>\n");
+	}
+
+	private static List<?> list(Object value) {
+		return value instanceof List<?> l ? l : List.of();
+	}
+
+	private static String time(Object epochMillis) {
+		return epochMillis instanceof Number n ? TIME.format(Instant.ofEpochMilli(n.longValue())) : "";
+	}
+
+	// Screenshots are recorded relative to the working directory
+	private static String relativize(Path reportDir, String path) {
+		try {
+			return reportDir.relativize(Path.of(path).toAbsolutePath()).toString().replace('\\', '/');
+		} catch (IllegalArgumentException e) {
+			return path;
+		}
+	}
+
+	private static String escape(Object value) {
+		if (value == null)
+			return "";
+		String s = String.valueOf(value);
+		StringBuilder out = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '<' -> out.append("&lt;");
+			case '>' -> out.append("&gt;");
+			case '&' -> out.append("&amp;");
+			case '"' -> out.append("&quot;");
+			default -> out.append(c);
+			}
+		}
+		return out.toString();
+	}
+}
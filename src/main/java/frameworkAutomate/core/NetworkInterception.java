@@ -0,0 +1,256 @@
+package frameworkAutomate.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.bidi.network.AddInterceptParameters;
+import org.openqa.selenium.bidi.network.BytesValue;
+import org.openqa.selenium.bidi.network.ContinueRequestParameters;
+import org.openqa.selenium.bidi.network.Header;
+import org.openqa.selenium.bidi.network.InterceptPhase;
+import org.openqa.selenium.bidi.network.ProvideResponseParameters;
+import org.openqa.selenium.bidi.network.UrlPattern;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Applies {@link NetworkRules} to a new session.
+ * <p>
+ * On Chromium (Chrome, Edge) plain blocking uses CDP
+ * {@code Network.setBlockedURLs}, which filters inside the browser at no
+ * per-request cost; stubs and third-party blocking need a CDP fetch
+ * interceptor. On Firefox every rule goes through a WebDriver BiDi network
+ * intercept, which requires the session to be created with BiDi enabled; the
+ * intercept is limited to {@link NetworkRules#interceptPatterns()} when the
+ * rules can be written as BiDi URL patterns, otherwise every request pauses
+ * for a round trip to the test.
+ * <p>
+ * A {@link TrafficArchive} adds record/replay behind the rules, in the same
+ * interceptor: recording needs CDP (Chrome, Edge), which hands every response
+ * body to the interceptor; replay works with CDP and BiDi. In replay, a request
+ * that was never recorded gets a 404, or goes to the network when
+ * {@code traffic.replay.miss=live}.
+ */
+public final class NetworkInterception {
+
+	private static final Map<String, byte[]> RESOURCES = new ConcurrentHashMap<>();
+	private static final Map<DriverContext.Session, AutoCloseable> INSTALLED = new ConcurrentHashMap<>();
+	private static final boolean REPLAY_MISS_LIVE = "live"
+			.equalsIgnoreCase(ConfigReader.get("traffic.replay.miss", "fail").trim());
+	// Describe the recorded body as it was, not as it travelled
+	private static final Set<String> UNREPLAYABLE_HEADERS = Set.of("content-encoding", "content-length",
+			"transfer-encoding");
+
+	private NetworkInterception() {
+	}
+
+	/**
+	 * Installs the rules on a freshly created driver.
+	 *
+	 * @param driver The new session.
+	 * @param rules  The rules to apply; nothing happens when they are empty.
+	 * @throws UnsupportedOperationException if the driver supports neither CDP
+	 *                                       nor BiDi.
+	 */
+	public static void install(WebDriver driver, NetworkRules rules) {
+		install(driver, rules, null);
+	}
+
+	/**
+	 * Installs the rules and, if given, records to or replays from an archive.
+	 *
+	 * @param driver  The new session.
+	 * @param rules   The rules to apply first.
+	 * @param traffic The archive, or null for live traffic.
+	 * @throws UnsupportedOperationException if the driver cannot intercept what
+	 *                                       is asked.
+	 */
+	public static void install(WebDriver driver, NetworkRules rules, TrafficArchive traffic) {
+		if (rules.isEmpty() && traffic == null)
+			return;
+
+		if (driver instanceof HasCdp cdp) {
+			if (!rules.blockedGlobs().isEmpty()) {
+				cdp.executeCdpCommand("Network.enable", Map.of());
+				cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", rules.blockedGlobs()));
+			}
+			if (traffic != null && traffic.mode() == TrafficArchive.Mode.RECORD) {
+				// A filter sees the real response on its way back to the browser
+				track(driver, new NetworkInterceptor(driver, (Filter) next -> request -> {
+					HttpResponse local = answerLocally(rules, request.getUri());
+					return local != null ? local : record(traffic, request, next.execute(request));
+				}));
+			} else if ((rules.needsInterception() || traffic != null) && driver instanceof HasDevTools) {
+				track(driver, new NetworkInterceptor(driver, (HttpHandler) request -> answer(rules, traffic, request)));
+			}
+		} else if (driver instanceof HasBiDi) {
+			if (traffic != null && traffic.mode() == TrafficArchive.Mode.RECORD)
+				throw new UnsupportedOperationException("traffic.mode=record needs Chrome or Edge (CDP)");
+			installBiDi(driver, rules, traffic);
+		} else {
+			throw new UnsupportedOperationException(
+					"Network rules need CDP or BiDi, not available for " + driver.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Stops intercepting for a session about to be quit.
+	 *
+	 * @param driver Parameter of type WebDriver.
+	 */
+	static void uninstall(WebDriver driver) {
+		AutoCloseable interceptor = INSTALLED.remove(new DriverContext.Session(driver));
+		if (interceptor == null)
+			return;
+		try {
+			interceptor.close();
+		} catch (Exception ignored) {
+			// the session may already be gone; quitting it drops the intercept anyway
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private static void track(WebDriver driver, AutoCloseable interceptor) {
+		INSTALLED.put(new DriverContext.Session(driver), interceptor);
+	}
+
+	// Chromium interceptor: blocked globs were already filtered in the browser
+	private static HttpResponse answer(NetworkRules rules, TrafficArchive traffic, HttpRequest request) {
+		HttpResponse local = answerLocally(rules, request.getUri());
+		if (local != null)
+			return local;
+		if (traffic == null)
+			return NetworkInterceptor.PROCEED_WITH_REQUEST;
+
+		Optional<TrafficArchive.Response> recorded = traffic
+				.lookup(TrafficArchive.key(request.getMethod().toString(), request.getUri()));
+		if (recorded.isPresent()) {
+			HttpResponse response = new HttpResponse().setStatus(recorded.get().status());
+			for (Map.Entry<String, String> h : recorded.get().headers())
+				if (!UNREPLAYABLE_HEADERS.contains(h.getKey().toLowerCase(Locale.ROOT)))
+					response.addHeader(h.getKey(), h.getValue());
+			return response.setContent(Contents.bytes(recorded.get().body()));
+		}
+		return REPLAY_MISS_LIVE ? NetworkInterceptor.PROCEED_WITH_REQUEST
+				: new HttpResponse().setStatus(404).setContent(Contents.empty());
+	}
+
+	// Stub or block, or null to let the request through
+	private static HttpResponse answerLocally(NetworkRules rules, String url) {
+		String stub = rules.stubFor(url);
+		if (stub != null)
+			return new HttpResponse().setStatus(200).setHeader("Content-Type", contentType(stub))
+					.setContent(Contents.bytes(resource(stub)));
+		if (rules.isBlocked(url))
+			return new HttpResponse().setStatus(404).setContent(Contents.empty());
+		return null;
+	}
+
+	private static HttpResponse record(TrafficArchive traffic, HttpRequest request, HttpResponse response) {
+		byte[] body = Contents.bytes(response.getContent());
+		List<Map.Entry<String, String>> headers = new ArrayList<>();
+		response.forEachHeader((name, value) -> headers.add(Map.entry(name, value)));
+		traffic.append(TrafficArchive.key(request.getMethod().toString(), request.getUri()),
+				new TrafficArchive.Response(response.getStatus(), headers, body));
+		return response.setContent(Contents.bytes(body)); // the original stream was consumed
+	}
+
+	private static void installBiDi(WebDriver driver, NetworkRules rules, TrafficArchive traffic) {
+		Network network = new Network(driver);
+		track(driver, network);
+		AddInterceptParameters intercept = new AddInterceptParameters(InterceptPhase.BEFORE_REQUEST_SENT);
+		// Replay answers every request; otherwise only the requests the rules name are paused
+		List<UrlPattern> patterns = traffic == null ? rules.interceptPatterns() : List.of();
+		if (!patterns.isEmpty())
+			intercept.urlPatterns(patterns);
+		network.addIntercept(intercept);
+		network.onBeforeRequestSent(event -> {
+			if (!event.isBlocked())
+				return;
+			String requestId = event.getRequest().getRequestId();
+			String url = event.getRequest().getUrl();
+
+			String stub = rules.stubFor(url);
+			if (stub != null) {
+				String body = Base64.getEncoder().encodeToString(resource(stub));
+				network.provideResponse(new ProvideResponseParameters(requestId).statusCode(200)
+						.headers(List.of(new Header("Content-Type",
+								new BytesValue(BytesValue.Type.STRING, contentType(stub)))))
+						.body(new BytesValue(BytesValue.Type.BASE64, body)));
+			} else if (rules.isBlocked(url)) {
+				network.failRequest(requestId);
+			} else if (traffic != null) {
+				replayBiDi(network, requestId, traffic, event.getRequest().getMethod(), url);
+			} else {
+				network.continueRequest(new ContinueRequestParameters(requestId));
+			}
+		});
+	}
+
+	private static void replayBiDi(Network network, String requestId, TrafficArchive traffic, String method,
+			String url) {
+		Optional<TrafficArchive.Response> recorded = traffic.lookup(TrafficArchive.key(method, url));
+		if (recorded.isEmpty()) {
+			if (REPLAY_MISS_LIVE)
+				network.continueRequest(new ContinueRequestParameters(requestId));
+			else
+				network.failRequest(requestId);
+			return;
+		}
+		List<Header> headers = new ArrayList<>();
+		for (Map.Entry<String, String> h : recorded.get().headers())
+			if (!UNREPLAYABLE_HEADERS.contains(h.getKey().toLowerCase(Locale.ROOT)))
+				headers.add(new Header(h.getKey(), new BytesValue(BytesValue.Type.STRING, h.getValue())));
+		network.provideResponse(new ProvideResponseParameters(requestId).statusCode(recorded.get().status())
+				.headers(headers).body(new BytesValue(BytesValue.Type.BASE64,
+						Base64.getEncoder().encodeToString(recorded.get().body()))));
+	}
+
+	private static byte[] resource(String path) {
+		return RESOURCES.computeIfAbsent(path, p -> {
+			try (InputStream in = NetworkInterception.class.getClassLoader().getResourceAsStream(p)) {
+				if (in == null)
+					throw new IllegalArgumentException("Stub resource not found on the classpath: " + p);
+				return in.readAllBytes();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	private static String contentType(String path) {
+		String ext = path.substring(path.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+		return switch (ext) {
+		case "js" -> "application/javascript";
+		case "json" -> "application/json";
+		case "css" -> "text/css";
+		case "html", "htm" -> "text/html; charset=utf-8";
+		case "svg" -> "image/svg+xml";
+		case "png" -> "image/png";
+		case "gif" -> "image/gif";
+		case "jpg", "jpeg" -> "image/jpeg";
+		default -> "text/plain; charset=utf-8";
+		};
+	}
+}
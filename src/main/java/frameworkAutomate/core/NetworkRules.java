@@ -0,0 +1,242 @@
+package frameworkAutomate.core;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.bidi.network.UrlPattern;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Which requests a session must block or answer locally, read from
+ * config.properties:
+ * <ul>
+ * <li>{@code network.block}: resource classes to block (images, fonts, media,
+ * analytics, ads, thirdparty).</li>
+ * <li>{@code network.block.urls}: extra URL globs to block, comma-separated
+ * ({@code *} matches anything).</li>
+ * <li>{@code network.allow.hosts}: hosts that {@code thirdparty} must not
+ * block besides the host of {@code base.url}.</li>
+ * <li>{@code network.stub}: {@code glob -> classpath resource} pairs,
+ * comma-separated, served instead of the real response.</li>
+ * </ul>
+ */
+public final class NetworkRules {
+
+	private static final Map<String, List<String>> CLASSES = Map.of(
+			"images", extensions("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico", "bmp"),
+			"fonts", extensions("woff", "woff2", "ttf", "otf", "eot"),
+			"media", extensions("mp4", "webm", "mp3", "ogg", "wav", "m4a"),
+			"analytics", hosts("google-analytics.com", "googletagmanager.com", "analytics.google.com", "hotjar.com",
+					"segment.io", "segment.com", "mixpanel.com", "clarity.ms", "connect.facebook.net", "newrelic.com",
+					"nr-data.net"),
+			"ads", hosts("doubleclick.net", "googlesyndication.com", "googleadservices.com", "adservice.google.com",
+					"amazon-adsystem.com", "adnxs.com", "pubmatic.com", "criteo.com", "criteo.net", "taboola.com",
+					"outbrain.com", "rubiconproject.com", "ad.plus", "ezoic.net", "ezojs.com"));
+
+	// *://host/* : the one glob form a BiDi URL pattern can express
+	private static final Pattern HOST_GLOB = Pattern.compile("\\*://([^*/:]+)/\\*");
+
+	private final List<String> blockedGlobs;
+	private final List<Pattern> blockedPatterns;
+	private final Map<Pattern, String> stubs;
+	private final List<String> stubGlobs;
+	private final boolean blockThirdParty;
+	private final List<String> allowedHosts;
+
+	private NetworkRules(List<String> blockedGlobs, Map<String, String> stubs, boolean blockThirdParty,
+			List<String> allowedHosts) {
+		this.blockedGlobs = List.copyOf(blockedGlobs);
+		this.blockedPatterns = blockedGlobs.stream().map(NetworkRules::globToRegex).toList();
+		Map<Pattern, String> compiled = new LinkedHashMap<>();
+		stubs.forEach((glob, resource) -> compiled.put(globToRegex(glob), resource));
+		this.stubs = Collections.unmodifiableMap(compiled);
+		this.stubGlobs = List.copyOf(stubs.keySet());
+		this.blockThirdParty = blockThirdParty;
+		this.allowedHosts = List.copyOf(allowedHosts);
+	}
+
+	/**
+	 * Reads the rules from config.properties.
+	 *
+	 * @return The configured rules; {@link #isEmpty()} when nothing is set.
+	 */
+	public static NetworkRules fromConfig() {
+		List<String> globs = new ArrayList<>();
+		boolean thirdParty = false;
+		for (String cls : split(ConfigReader.get("network.block", ""))) {
+			String key = cls.toLowerCase(Locale.ROOT);
+			if (key.equals("thirdparty"))
+				thirdParty = true;
+			else if (CLASSES.containsKey(key))
+				globs.addAll(CLASSES.get(key));
+			else
+				throw new IllegalArgumentException("Unknown network.block class: " + cls);
+		}
+		globs.addAll(split(ConfigReader.get("network.block.urls", "")));
+
+		Map<String, String> stubs = new LinkedHashMap<>();
+		for (String pair : split(ConfigReader.get("network.stub", ""))) {
+			String[] parts = pair.split("->");
+			if (parts.length != 2)
+				throw new IllegalArgumentException("network.stub entries must be 'glob -> resource': " + pair);
+			stubs.put(parts[0].trim(), parts[1].trim());
+		}
+
+		List<String> allowed = new ArrayList<>(split(ConfigReader.get("network.allow.hosts", "")));
+		String baseUrl = ConfigReader.get("base.url");
+		if (baseUrl != null && URI.create(baseUrl.trim()).getHost() != null)
+			allowed.add(URI.create(baseUrl.trim()).getHost());
+
+		return new NetworkRules(globs, stubs, thirdParty, allowed);
+	}
+
+	/** @return true if no request needs to be blocked or stubbed. */
+	public boolean isEmpty() {
+		return blockedGlobs.isEmpty() && stubs.isEmpty() && !blockThirdParty;
+	}
+
+	/** @return true if some requests must be decided request by request (stubs, third-party). */
+	public boolean needsInterception() {
+		return !stubs.isEmpty() || blockThirdParty;
+	}
+
+	/**
+	 * Returns the BiDi URL patterns that cover every request the rules act on,
+	 * so the browser only pauses those. BiDi patterns match whole host names
+	 * or exact URLs, without wildcards: rules on subdomains, extensions or
+	 * third-party hosts cannot be expressed, and then every request is
+	 * intercepted.
+	 *
+	 * @return The patterns, or an empty list to intercept every request.
+	 */
+	public List<UrlPattern> interceptPatterns() {
+		if (blockThirdParty)
+			return List.of();
+		List<UrlPattern> patterns = new ArrayList<>();
+		List<String> globs = new ArrayList<>(blockedGlobs);
+		globs.addAll(stubGlobs);
+		for (String glob : globs) {
+			UrlPattern pattern = toUrlPattern(glob);
+			if (pattern == null)
+				return List.of();
+			patterns.add(pattern);
+		}
+		return patterns;
+	}
+
+	/** @return The block globs, in the wildcard syntax of CDP {@code Network.setBlockedURLs}. */
+	public List<String> blockedGlobs() {
+		return blockedGlobs;
+	}
+
+	/**
+	 * Decides whether a request must be blocked.
+	 *
+	 * @param url The request URL.
+	 * @return true if a glob matches it or it goes to a third-party host.
+	 */
+	public boolean isBlocked(String url) {
+		for (Pattern p : blockedPatterns)
+			if (p.matcher(url).matches())
+				return true;
+		return blockThirdParty && isThirdParty(url);
+	}
+
+	/**
+	 * Returns the classpath resource that answers a request, if any.
+	 *
+	 * @param url The request URL.
+	 * @return The resource path, or null to let the request through.
+	 */
+	public String stubFor(String url) {
+		for (Map.Entry<Pattern, String> stub : stubs.entrySet())
+			if (stub.getKey().matcher(url).matches())
+				return stub.getValue();
+		return null;
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private boolean isThirdParty(String url) {
+		String host;
+		try {
+			host = URI.create(url).getHost();
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		if (host == null)
+			return false; // data:, blob:, about:
+		for (String allowed : allowedHosts)
+			if (host.equals(allowed) || host.endsWith("." + allowed))
+				return false;
+		return true;
+	}
+
+	private static List<String> extensions(String... exts) {
+		List<String> globs = new ArrayList<>();
+		for (String ext : exts) {
+			globs.add("*." + ext);
+			globs.add("*." + ext + "?*");
+		}
+		return globs;
+	}
+
+	private static List<String> hosts(String... hosts) {
+		List<String> globs = new ArrayList<>();
+		for (String host : hosts) {
+			globs.add("*://" + host + "/*");
+			globs.add("*://*." + host + "/*");
+		}
+		return globs;
+	}
+
+	private static List<String> split(String raw) {
+		List<String> parts = new ArrayList<>();
+		for (String part : raw.split(","))
+			if (!part.isBlank())
+				parts.add(part.trim());
+		return parts;
+	}
+
+	// A host glob or an exact URL; null for anything with other wildcards
+	private static UrlPattern toUrlPattern(String glob) {
+		Matcher host = HOST_GLOB.matcher(glob);
+		if (host.matches())
+			return new UrlPattern().hostname(host.group(1));
+		if (glob.contains("*"))
+			return null;
+		URI uri;
+		try {
+			uri = URI.create(glob);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (uri.getScheme() == null || uri.getHost() == null)
+			return null;
+		UrlPattern pattern = new UrlPattern().protocol(uri.getScheme()).hostname(uri.getHost())
+				.pathname(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+		if (uri.getPort() != -1)
+			pattern.port(String.valueOf(uri.getPort()));
+		if (uri.getRawQuery() != null)
+			pattern.search(uri.getRawQuery());
+		return pattern;
+	}
+
+	private static Pattern globToRegex(String glob) {
+		StringBuilder regex = new StringBuilder();
+		for (String literal : glob.split("\\*", -1)) {
+			if (regex.length() > 0)
+				regex.append(".*");
+			regex.append(Pattern.quote(literal));
+		}
+		return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+	}
+}
@@ -0,0 +1,54 @@
+package frameworkAutomate.core;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.openqa.selenium.support.ui.Sleeper;
+
+/**
+ * How {@link Waits} spaces the evaluations of a condition.
+ */
+public enum PollingStrategy {
+
+	/** Sleeps {@code explicit.polling} ms between evaluations. */
+	FIXED,
+
+	/**
+	 * Starts at {@code explicit.polling.initial} ms and doubles after every
+	 * evaluation, capped at {@code explicit.polling}: fast conditions return
+	 * within a few ms and slow ones don't hammer the driver.
+	 */
+	ADAPTIVE;
+
+	/**
+	 * Parses a strategy name as written in config.properties.
+	 *
+	 * @param name fixed or adaptive, case-insensitive.
+	 * @return The matching strategy.
+	 */
+	public static PollingStrategy from(String name) {
+		return valueOf(name.trim().toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * Geometric backoff for a single wait. The interval FluentWait asks for is
+	 * ignored; the cap given at construction bounds every sleep instead.
+	 */
+	static final class BackoffSleeper implements Sleeper {
+
+		private final long capMillis;
+		private long nextMillis;
+
+		BackoffSleeper(Duration initial, Duration cap) {
+			this.capMillis = Math.max(1, cap.toMillis());
+			this.nextMillis = Math.max(1, Math.min(initial.toMillis(), capMillis));
+		}
+
+		@Override
+		public void sleep(Duration requested) throws InterruptedException {
+			long millis = nextMillis;
+			nextMillis = Math.min(capMillis, nextMillis * 2);
+			Thread.sleep(millis);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package frameworkAutomate.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openqa.selenium.TimeoutException;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * How {@link BasePage} retries an interaction that failed.
+ * <p>
+ * Only the exceptions listed in {@code retry.on} are retried (by default the
+ * transient ones: stale element, click intercepted, not interactable, no such
+ * element); anything else fails at once. A {@link TimeoutException} is never
+ * retried: the explicit wait behind it already used its whole timeout.
+ * <p>
+ * Retries back off exponentially from {@code retry.backoff.initial} ms up to
+ * {@code retry.backoff.max} ms, each sleep shortened by a random share of up
+ * to {@code retry.jitter} percent so parallel tests don't retry in lockstep.
+ * All attempts, their waits included, share one budget of
+ * {@code retry.budget} seconds (default {@code explicit.timeout}): each attempt
+ * is told how much is left and no retry starts once it is spent.
+ * <p>
+ * Instances are immutable; pages adjust the configured policy with the
+ * {@code with*} methods in {@link BasePage#retryPolicy()}.
+ */
+public final class RetryPolicy {
+
+	private static final String DEFAULT_RETRY_ON = "StaleElementReferenceException, ElementClickInterceptedException, "
+			+ "ElementNotInteractableException, NoSuchElementException";
+
+	private static final RetryPolicy CONFIGURED = fromConfig();
+
+	private final int maxAttempts;
+	private final Duration initialBackoff;
+	private final Duration maxBackoff;
+	private final int jitterPercent;
+	private final Duration budget;
+	private final List<Class<? extends RuntimeException>> retryOn;
+
+	private RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, int jitterPercent,
+			Duration budget, List<Class<? extends RuntimeException>> retryOn) {
+		if (maxAttempts < 1)
+			throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+		this.maxAttempts = maxAttempts;
+		this.initialBackoff = Objects.requireNonNull(initialBackoff);
+		this.maxBackoff = Objects.requireNonNull(maxBackoff);
+		this.jitterPercent = Math.max(0, Math.min(100, jitterPercent));
+		this.budget = Objects.requireNonNull(budget);
+		this.retryOn = List.copyOf(retryOn);
+	}
+
+	/**
+	 * Returns the policy configured in config.properties, read once per JVM.
+	 *
+	 * @return The result of type RetryPolicy.
+	 */
+	public static RetryPolicy configured() {
+		return CONFIGURED;
+	}
+
+	/** @return A policy that runs the action once. */
+	public static RetryPolicy none() {
+		return CONFIGURED.withMaxAttempts(1);
+	}
+
+	/**
+	 * Performs the 'withMaxAttempts' operation.
+	 *
+	 * @param maxAttempts Attempts in total, the first one included.
+	 * @return A copy of this policy.
+	 */
+	public RetryPolicy withMaxAttempts(int maxAttempts) {
+		return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitterPercent, budget, retryOn);
+	}
+
+	/**
+	 * Performs the 'withBackoff' operation.
+	 *
+	 * @param initial Sleep before the first retry.
+	 * @param max     Cap of the doubling sleeps.
+	 * @return A copy of this policy.
+	 */
+	public RetryPolicy withBackoff(Duration initial, Duration max) {
+		return new RetryPolicy(maxAttempts, initial, max, jitterPercent, budget, retryOn);
+	}
+
+	/**
+	 * Performs the 'withBudget' operation.
+	 *
+	 * @param budget Total time for all attempts and sleeps.
+	 * @return A copy of this policy.
+	 */
+	public RetryPolicy withBudget(Duration budget) {
+		return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitterPercent, budget, retryOn);
+	}
+
+	/**
+	 * Adds exception types to retry.
+	 *
+	 * @param types Parameter of type Class.
+	 * @return A copy of this policy.
+	 */
+	@SafeVarargs
+	public final RetryPolicy retryingOn(Class<? extends RuntimeException>... types) {
+		List<Class<? extends RuntimeException>> all = new ArrayList<>(retryOn);
+		for (Class<? extends RuntimeException> type : types)
+			all.add(type);
+		return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, jitterPercent, budget, all);
+	}
+
+	/**
+	 * Decides whether a failure is worth another attempt.
+	 *
+	 * @param e Parameter of type RuntimeException.
+	 * @return The result of type boolean.
+	 */
+	public boolean isRetryable(RuntimeException e) {
+		if (e instanceof TimeoutException)
+			return false;
+		for (Class<? extends RuntimeException> type : retryOn)
+			if (type.isInstance(e))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Runs an action under this policy.
+	 *
+	 * @param attempt Called with the budget left; waits inside should not exceed
+	 *                it.
+	 * @param onRetry Called with the failure before each retry.
+	 * @return The result of the first successful attempt.
+	 * @throws RuntimeException the last failure, once it is not retryable, the
+	 *                          attempts are used up or the budget is spent.
+	 */
+	public <T> T execute(Function<Duration, T> attempt, Consumer<RuntimeException> onRetry) {
+		long deadline = System.nanoTime() + budget.toNanos();
+		long backoff = initialBackoff.toMillis();
+		for (int i = 1;; i++) {
+			try {
+				return attempt.apply(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+			} catch (RuntimeException e) {
+				if (i >= maxAttempts || !isRetryable(e))
+					throw e;
+				long sleep = jittered(Math.min(backoff, maxBackoff.toMillis()));
+				if (System.nanoTime() + sleep * 1_000_000 >= deadline)
+					throw e;
+				onRetry.accept(e);
+				try {
+					Thread.sleep(sleep);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+				backoff = Math.min(maxBackoff.toMillis(), backoff * 2);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RetryPolicy[maxAttempts=" + maxAttempts + ", backoff=" + initialBackoff.toMillis() + ".."
+				+ maxBackoff.toMillis() + " ms, jitter=" + jitterPercent + "%, budget=" + budget.toMillis()
+				+ " ms, retryOn=" + retryOn.stream().map(Class::getSimpleName).toList() + "]";
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private static RetryPolicy fromConfig() {
+		List<Class<? extends RuntimeException>> types = new ArrayList<>();
+		for (String name : ConfigReader.get("retry.on", DEFAULT_RETRY_ON).split(","))
+			if (!name.isBlank())
+				types.add(exceptionType(name.trim()));
+
+		return new RetryPolicy(ConfigReader.getInt("retry.max.attempts", 3),
+				Duration.ofMillis(ConfigReader.getInt("retry.backoff.initial", 100)),
+				Duration.ofMillis(ConfigReader.getInt("retry.backoff.max", 1000)),
+				ConfigReader.getInt("retry.jitter", 50),
+				Duration.ofSeconds(ConfigReader.getInt("retry.budget", ConfigReader.getInt("explicit.timeout", 10))),
+				types);
+	}
+
+	// Simple names are looked up in org.openqa.selenium
+	private static Class<? extends RuntimeException> exceptionType(String name) {
+		String className = name.contains(".") ? name : "org.openqa.selenium." + name;
+		try {
+			return Class.forName(className).asSubclass(RuntimeException.class);
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IllegalArgumentException("retry.on: not a RuntimeException class: " + name, e);
+		}
+	}
+
+	private long jittered(long millis) {
+		if (jitterPercent == 0 || millis <= 0)
+			return millis;
+		long spread = millis * jitterPercent / 100;
+		return millis - ThreadLocalRandom.current().nextLong(spread + 1);
+	}
+}
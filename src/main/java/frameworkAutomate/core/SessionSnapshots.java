@@ -0,0 +1,292 @@
+package frameworkAutomate.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Named snapshots of a session's state (cookies, localStorage and
+ * sessionStorage of the current origin), so an expensive setup flow (log in,
+ * accept cookies, seed data) runs once and later sessions start from its
+ * result.
+ * <p>
+ * {@link #restoreOrCapture(WebDriver, String, Runnable)} restores the snapshot
+ * if there is a fresh one; otherwise it runs the setup in the given session and
+ * captures what it left. Tests asking for the same snapshot at once wait for
+ * the first one's setup instead of repeating it. Snapshots are kept in memory
+ * and as JSON files in {@code session.snapshot.dir} (default
+ * ~/.cache/selenium-framework/sessions), so later runs reuse them too, for
+ * {@code session.snapshot.ttl} seconds (default 1800). A snapshot is tied to
+ * an environment, {@code session.snapshot.scope} if set, otherwise the scheme,
+ * host and path of {@code base.url} without the port, so the stand-in server
+ * ({@code standin.port=0} picks a new port every run) keeps its snapshots. A
+ * snapshot taken on the host of {@code base.url} is restored on the current
+ * origin of {@code base.url}.
+ * <p>
+ * Restoring loads {@code session.snapshot.bootstrap} (default /robots.txt), a
+ * cheap page of the same origin, because cookies and storage can only be set
+ * on it. After a restore the browser is on that page; after a setup it is
+ * wherever the setup left it. Either way the test navigates where it needs to.
+ */
+public final class SessionSnapshots {
+
+	private static final String CAPTURE_STORAGE = "var dump = function (s) { var o = {};"
+			+ " try { for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } } catch (e) {}"
+			+ " return o; };"
+			+ "return { origin: location.origin, local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+	private static final String RESTORE_STORAGE = "var d = arguments[0];"
+			+ "for (var k in d.local) window.localStorage.setItem(k, d.local[k]);"
+			+ "for (var k in d.session) window.sessionStorage.setItem(k, d.session[k]);";
+
+	private static final Json JSON = new Json();
+	private static final Duration TTL = Duration.ofSeconds(ConfigReader.getInt("session.snapshot.ttl", 1800));
+	private static final Map<String, Snapshot> MEMORY = new ConcurrentHashMap<>();
+	private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+	private static final AtomicBoolean SWEPT = new AtomicBoolean();
+
+	private SessionSnapshots() {
+	}
+
+	/**
+	 * The captured state of one origin.
+	 *
+	 * @param origin         Scheme, host and port the state belongs to.
+	 * @param createdMillis  Capture time, epoch milliseconds.
+	 * @param cookies        Cookies as name/value/domain/path/expiry (epoch
+	 *                       seconds)/secure/httpOnly/sameSite maps.
+	 * @param localStorage   Parameter of type Map.
+	 * @param sessionStorage Parameter of type Map.
+	 */
+	public record Snapshot(String origin, long createdMillis, List<Map<String, Object>> cookies,
+			Map<String, Object> localStorage, Map<String, Object> sessionStorage) {
+	}
+
+	/**
+	 * Restores a snapshot into the session, or runs the setup and captures one.
+	 *
+	 * @param driver The session.
+	 * @param name   The snapshot, e.g. "logged-in".
+	 * @param setup  The flow that builds the state, run in {@code driver}.
+	 * @return true if the state was restored, false if the setup ran.
+	 */
+	public static boolean restoreOrCapture(WebDriver driver, String name, Runnable setup) {
+		String key = key(name);
+		Snapshot snapshot = lookup(key);
+		if (snapshot == null) {
+			ReentrantLock lock = LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+			lock.lock(); // not a monitor: setups block on the browser for seconds
+			try {
+				snapshot = lookup(key); // built by the test we waited for?
+				if (snapshot == null) {
+					setup.run();
+					save(key, capture(driver));
+					return false;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		restore(driver, snapshot);
+		return true;
+	}
+
+	/**
+	 * Captures the state of the page the session is on.
+	 *
+	 * @param driver Parameter of type WebDriver.
+	 * @return The result of type Snapshot.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Snapshot capture(WebDriver driver) {
+		Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE);
+		List<Map<String, Object>> cookies = new ArrayList<>();
+		for (Cookie c : driver.manage().getCookies()) {
+			Map<String, Object> cookie = new LinkedHashMap<>();
+			cookie.put("name", c.getName());
+			cookie.put("value", c.getValue());
+			cookie.put("domain", c.getDomain());
+			cookie.put("path", c.getPath());
+			if (c.getExpiry() != null)
+				cookie.put("expiry", c.getExpiry().getTime() / 1000);
+			cookie.put("secure", c.isSecure());
+			cookie.put("httpOnly", c.isHttpOnly());
+			if (c.getSameSite() != null)
+				cookie.put("sameSite", c.getSameSite());
+			cookies.add(cookie);
+		}
+		return new Snapshot(String.valueOf(storage.get("origin")), System.currentTimeMillis(), cookies,
+				orEmpty(storage.get("local")), orEmpty(storage.get("session")));
+	}
+
+	/**
+	 * Puts a snapshot's cookies and storage into the session. Cookies that have
+	 * expired since the capture are left out.
+	 *
+	 * @param driver   Parameter of type WebDriver.
+	 * @param snapshot Parameter of type Snapshot.
+	 */
+	public static void restore(WebDriver driver, Snapshot snapshot) {
+		driver.get(restoreOrigin(snapshot) + ConfigReader.get("session.snapshot.bootstrap", "/robots.txt").trim());
+		long now = System.currentTimeMillis() / 1000;
+		for (Map<String, Object> c : snapshot.cookies()) {
+			Number expiry = (Number) c.get("expiry");
+			if (expiry != null && expiry.longValue() <= now)
+				continue;
+			Cookie.Builder cookie = new Cookie.Builder((String) c.get("name"), (String) c.get("value"))
+					.path((String) c.get("path")).isSecure(Boolean.TRUE.equals(c.get("secure")))
+					.isHttpOnly(Boolean.TRUE.equals(c.get("httpOnly")));
+			if (c.get("domain") != null)
+				cookie.domain((String) c.get("domain"));
+			if (expiry != null)
+				cookie.expiresOn(new Date(expiry.longValue() * 1000));
+			if (c.get("sameSite") != null)
+				cookie.sameSite((String) c.get("sameSite"));
+			driver.manage().addCookie(cookie.build());
+		}
+		((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE,
+				Map.of("local", snapshot.localStorage(), "session", snapshot.sessionStorage()));
+	}
+
+	/**
+	 * Drops a snapshot, e.g. after the account it logged into changed.
+	 *
+	 * @param name Parameter of type String.
+	 */
+	public static void invalidate(String name) {
+		String key = key(name);
+		MEMORY.remove(key);
+		try {
+			Files.deleteIfExists(file(key));
+		} catch (IOException ignored) {
+			// an unreadable file is ignored on lookup anyway
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	// One snapshot per name and environment
+	private static String key(String name) {
+		String scope = ConfigReader.get("session.snapshot.scope", "").trim();
+		if (scope.isEmpty()) {
+			URI base = URI.create(ConfigReader.get("base.url").trim());
+			scope = base.getScheme() + "://" + base.getHost() + base.getPath();
+		}
+		String safe = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+		return safe + "-" + HexFormat.of().toHexDigits(scope.hashCode());
+	}
+
+	// The recorded origin, moved to the current port of base.url when it is the same host
+	private static String restoreOrigin(Snapshot snapshot) {
+		URI base = URI.create(ConfigReader.get("base.url").trim());
+		URI recorded = URI.create(snapshot.origin());
+		if (!base.getScheme().equals(recorded.getScheme()) || !base.getHost().equalsIgnoreCase(String.valueOf(recorded.getHost())))
+			return snapshot.origin();
+		return base.getScheme() + "://" + base.getHost() + (base.getPort() == -1 ? "" : ":" + base.getPort());
+	}
+
+	private static Snapshot lookup(String key) {
+		Snapshot snapshot = MEMORY.get(key);
+		if (snapshot == null) {
+			sweepOnce();
+			snapshot = load(file(key));
+			if (snapshot != null)
+				MEMORY.put(key, snapshot);
+		}
+		if (snapshot != null && expired(snapshot)) {
+			MEMORY.remove(key, snapshot);
+			return null;
+		}
+		return snapshot;
+	}
+
+	private static boolean expired(Snapshot snapshot) {
+		return System.currentTimeMillis() - snapshot.createdMillis() > TTL.toMillis();
+	}
+
+	private static void save(String key, Snapshot snapshot) {
+		MEMORY.put(key, snapshot);
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("origin", snapshot.origin());
+		json.put("created", snapshot.createdMillis());
+		json.put("cookies", snapshot.cookies());
+		json.put("localStorage", snapshot.localStorage());
+		json.put("sessionStorage", snapshot.sessionStorage());
+		try {
+			Path file = file(key);
+			Files.createDirectories(file.getParent());
+			Path tmp = Files.createTempFile(file.getParent(), "session", ".tmp");
+			Files.writeString(tmp, JSON.toJson(json), StandardCharsets.UTF_8);
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// kept in memory for this run; the next run sets up again
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Snapshot load(Path file) {
+		if (!Files.exists(file))
+			return null;
+		try {
+			Map<String, Object> json = JSON.toType(Files.readString(file, StandardCharsets.UTF_8), Json.MAP_TYPE);
+			return new Snapshot((String) json.get("origin"), ((Number) json.get("created")).longValue(),
+					(List<Map<String, Object>>) json.get("cookies"), orEmpty(json.get("localStorage")),
+					orEmpty(json.get("sessionStorage")));
+		} catch (IOException | JsonException | ClassCastException | NullPointerException e) {
+			return null; // a corrupt snapshot is the same as none
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> orEmpty(Object storage) {
+		return storage instanceof Map<?, ?> m ? (Map<String, Object>) m : Map.of();
+	}
+
+	// Deletes the expired files once per JVM, so the directory does not grow forever
+	private static void sweepOnce() {
+		if (!SWEPT.compareAndSet(false, true))
+			return;
+		Path dir = directory();
+		if (!Files.isDirectory(dir))
+			return;
+		long cutoff = System.currentTimeMillis() - TTL.toMillis();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+			for (Path f : files)
+				if (Files.getLastModifiedTime(f).toMillis() < cutoff)
+					Files.deleteIfExists(f);
+		} catch (IOException ignored) {
+			// expired snapshots are still ignored on lookup
+		}
+	}
+
+	private static Path file(String key) {
+		return directory().resolve(key + ".json");
+	}
+
+	private static Path directory() {
+		return Path.of(ConfigReader.get("session.snapshot.dir",
+				Path.of(System.getProperty("user.home"), ".cache", "selenium-framework", "sessions").toString()).trim());
+	}
+}
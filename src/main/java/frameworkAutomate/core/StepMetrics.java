@@ -0,0 +1,267 @@
+package frameworkAutomate.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Process-wide latency histograms of page steps ({@link BasePage} interactions)
+ * and {@link Waits} conditions, keyed by operation and target: the locator, the
+ * page class for navigation, the wait method for waits. Targets come from code,
+ * never from URLs or expected text, so the number of series stays bounded.
+ * <p>
+ * Recording costs two {@code System.nanoTime()} calls, a map lookup and a few
+ * {@link LongAdder} increments, so it is always on unless
+ * {@code metrics.enabled=false}. Buckets are fixed and roughly logarithmic, from
+ * 1 ms to 30 s. Waits additionally record how many times their condition was
+ * evaluated and how much of their timeout they used, which tells a slow
+ * application apart from an over-long timeout.
+ * <p>
+ * {@link #writePrometheus(Path)} exports everything in the Prometheus text
+ * format; {@link #summary(int)} gives the slowest steps for the report.
+ */
+public final class StepMetrics {
+
+	private static final boolean ENABLED = Boolean
+			.parseBoolean(ConfigReader.get("metrics.enabled", "true").trim());
+
+	private static final double[] LATENCY_BUCKETS = { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5,
+			5, 10, 30 }; // seconds
+	private static final double[] RATIO_BUCKETS = { 0.1, 0.25, 0.5, 0.75, 0.9, 1 }; // of the timeout
+
+	private static final Map<Key, Series> SERIES = new ConcurrentHashMap<>();
+
+	private StepMetrics() {
+	}
+
+	/** @return The start mark to pass to the record methods. */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records one finished step.
+	 *
+	 * @param op         The operation, e.g. click or write.
+	 * @param target     The locator, or anything whose toString identifies it.
+	 * @param startNanos The value returned by {@link #start()}.
+	 * @param ok         Whether the step succeeded.
+	 */
+	public static void record(String op, Object target, long startNanos, boolean ok) {
+		if (!ENABLED)
+			return;
+		Series s = series(op, target);
+		s.observe(System.nanoTime() - startNanos);
+		if (!ok)
+			s.errors.increment();
+	}
+
+	/**
+	 * Counts one retry of a step.
+	 *
+	 * @param op     The operation.
+	 * @param target The locator.
+	 */
+	public static void retry(String op, Object target) {
+		if (ENABLED)
+			series(op, target).retries.increment();
+	}
+
+	/**
+	 * Records one finished wait against its timeout.
+	 *
+	 * @param kind         The wait method, e.g. visible.
+	 * @param polls        How many times the condition was evaluated.
+	 * @param nanos        How long the wait took.
+	 * @param timeoutNanos The timeout it was given.
+	 * @param timedOut     Whether it gave up.
+	 */
+	static void recordWait(String kind, int polls, long nanos, long timeoutNanos, boolean timedOut) {
+		if (!ENABLED)
+			return;
+		Series s = series("wait", kind);
+		s.observe(nanos);
+		s.polls.add(polls);
+		if (timedOut)
+			s.errors.increment();
+		if (timeoutNanos > 0)
+			s.ratio[bucket(RATIO_BUCKETS, (double) nanos / timeoutNanos)].increment();
+	}
+
+	/** Clears every series. */
+	public static void reset() {
+		SERIES.clear();
+	}
+
+	/**
+	 * Writes every series in the Prometheus text exposition format. The file is
+	 * replaced atomically.
+	 *
+	 * @param file Parameter of type Path.
+	 */
+	public static void writePrometheus(Path file) {
+		try {
+			Path dir = file.toAbsolutePath().getParent();
+			Files.createDirectories(dir);
+			Path tmp = Files.createTempFile(dir, "metrics", ".tmp");
+			try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				List<Map.Entry<Key, Series>> all = sorted();
+
+				out.write("# HELP step_duration_seconds Duration of page steps and waits.\n");
+				out.write("# TYPE step_duration_seconds histogram\n");
+				for (Map.Entry<Key, Series> e : all)
+					writeHistogram(out, "step_duration_seconds", e.getKey().labels(), LATENCY_BUCKETS,
+							e.getValue().latency, e.getValue().count.sum(), e.getValue().nanos.sum() / 1e9);
+
+				out.write("# HELP step_errors_total Steps that failed and waits that timed out.\n");
+				out.write("# TYPE step_errors_total counter\n");
+				for (Map.Entry<Key, Series> e : all)
+					out.write("step_errors_total{" + e.getKey().labels() + "} " + e.getValue().errors.sum() + "\n");
+
+				out.write("# HELP step_retries_total Retries of page steps.\n");
+				out.write("# TYPE step_retries_total counter\n");
+				for (Map.Entry<Key, Series> e : all)
+					if (!e.getKey().op().equals("wait"))
+						out.write("step_retries_total{" + e.getKey().labels() + "} " + e.getValue().retries.sum() + "\n");
+
+				out.write("# HELP wait_timeout_ratio Share of the timeout a wait used.\n");
+				out.write("# TYPE wait_timeout_ratio histogram\n");
+				for (Map.Entry<Key, Series> e : all)
+					if (e.getKey().op().equals("wait")) {
+						long n = 0;
+						for (LongAdder b : e.getValue().ratio)
+							n += b.sum();
+						writeHistogram(out, "wait_timeout_ratio", e.getKey().labels(), RATIO_BUCKETS,
+								e.getValue().ratio, n, Double.NaN);
+					}
+
+				out.write("# HELP wait_polls_total Condition evaluations per wait method.\n");
+				out.write("# TYPE wait_polls_total counter\n");
+				for (Map.Entry<Key, Series> e : all)
+					if (e.getKey().op().equals("wait"))
+						out.write("wait_polls_total{" + e.getKey().labels() + "} " + e.getValue().polls.sum() + "\n");
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the steps that took the most time in total, as aligned text rows
+	 * (count, p50, p95, max bucket, retries, errors), preceded by a header.
+	 *
+	 * @param limit Maximum number of rows.
+	 * @return The result of type List<String>.
+	 */
+	public static List<String> summary(int limit) {
+		List<String> rows = new ArrayList<>();
+		rows.add(String.format(Locale.ROOT, "%-10s %7s %9s %9s %9s %7s %6s  %s", "op", "count", "p50", "p95",
+				"total", "retries", "errors", "target"));
+		SERIES.entrySet().stream()
+				.sorted(Comparator.comparingLong((Map.Entry<Key, Series> e) -> e.getValue().nanos.sum()).reversed())
+				.limit(limit).forEach(e -> {
+					Series s = e.getValue();
+					rows.add(String.format(Locale.ROOT, "%-10s %7d %9s %9s %9s %7d %6d  %s", e.getKey().op(),
+							s.count.sum(), millis(s.percentile(0.5)), millis(s.percentile(0.95)),
+							millis(s.nanos.sum() / 1e9), s.retries.sum(), s.errors.sum(), e.getKey().target()));
+				});
+		return rows;
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private static Series series(String op, Object target) {
+		return SERIES.computeIfAbsent(new Key(op, String.valueOf(target)), k -> new Series());
+	}
+
+	private static int bucket(double[] bounds, double value) {
+		for (int i = 0; i < bounds.length; i++)
+			if (value <= bounds[i])
+				return i;
+		return bounds.length; // +Inf
+	}
+
+	private static List<Map.Entry<Key, Series>> sorted() {
+		List<Map.Entry<Key, Series>> all = new ArrayList<>(SERIES.entrySet());
+		all.sort(Comparator.comparing((Map.Entry<Key, Series> e) -> e.getKey().op())
+				.thenComparing(e -> e.getKey().target()));
+		return all;
+	}
+
+	private static void writeHistogram(BufferedWriter out, String name, String labels, double[] bounds,
+			LongAdder[] buckets, long count, double sum) throws IOException {
+		long cumulative = 0;
+		for (int i = 0; i <= bounds.length; i++) {
+			cumulative += buckets[i].sum();
+			String le = i < bounds.length ? String.valueOf(bounds[i]) : "+Inf";
+			out.write(name + "_bucket{" + labels + ",le=\"" + le + "\"} " + cumulative + "\n");
+		}
+		if (!Double.isNaN(sum))
+			out.write(name + "_sum{" + labels + "} " + sum + "\n");
+		out.write(name + "_count{" + labels + "} " + count + "\n");
+	}
+
+	private static String millis(double seconds) {
+		return Double.isInfinite(seconds) ? "> 30 s" : String.format(Locale.ROOT, "%.0f ms", seconds * 1000);
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private record Key(String op, String target) {
+		String labels() {
+			return "op=\"" + escape(op) + "\",target=\"" + escape(target) + "\"";
+		}
+	}
+
+	private static final class Series {
+		private final LongAdder[] latency = adders(LATENCY_BUCKETS.length + 1);
+		private final LongAdder[] ratio = adders(RATIO_BUCKETS.length + 1);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder retries = new LongAdder();
+		private final LongAdder polls = new LongAdder();
+
+		void observe(long elapsed) {
+			latency[bucket(LATENCY_BUCKETS, elapsed / 1e9)].increment();
+			count.increment();
+			nanos.add(elapsed);
+		}
+
+		// Upper bound of the bucket holding the given quantile
+		double percentile(double q) {
+			long total = count.sum();
+			long rank = (long) Math.ceil(q * total);
+			long seen = 0;
+			for (int i = 0; i < latency.length; i++) {
+				seen += latency[i].sum();
+				if (seen >= rank && total > 0)
+					return i < LATENCY_BUCKETS.length ? LATENCY_BUCKETS[i] : Double.POSITIVE_INFINITY;
+			}
+			return 0;
+		}
+
+		private static LongAdder[] adders(int n) {
+			LongAdder[] a = new LongAdder[n];
+			for (int i = 0; i < n; i++)
+				a[i] = new LongAdder();
+			return a;
+		}
+	}
+}
@@ -0,0 +1,361 @@
+package frameworkAutomate.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * On-disk archive of recorded HTTP responses, for record/replay runs.
+ * <p>
+ * An archive is a directory with two files:
+ * <ul>
+ * <li>{@code data.bin}: the responses, appended as they are recorded. Each
+ * record is {@code [int length][key][int status][headers][body]}, strings and
+ * byte arrays length-prefixed, so the file can be scanned without the index.</li>
+ * <li>{@code index.bin}: {@code [long magic][int count]} followed by
+ * {@code count} pairs {@code [long keyHash][long offset]} sorted by hash.</li>
+ * </ul>
+ * Replay memory-maps the index and binary-searches it; only the matching
+ * record is read from the data file, so a recording of any size costs the
+ * heap nothing but the response being served. The key is
+ * {@code METHOD url-without-fragment}; the first recording of a key wins. If
+ * the index is missing or older than the data (a recording that crashed), it
+ * is rebuilt from the data file on open.
+ */
+public final class TrafficArchive implements AutoCloseable {
+
+	/** What the sessions do with the archive. */
+	public enum Mode {
+		OFF, RECORD, REPLAY
+	}
+
+	/**
+	 * A recorded response.
+	 *
+	 * @param status  HTTP status.
+	 * @param headers Header name/value pairs, in recorded order.
+	 * @param body    Decoded body.
+	 */
+	public record Response(int status, List<Map.Entry<String, String>> headers, byte[] body) {
+	}
+
+	private static final long MAGIC = 0x53454c5452414631L; // "SELTRAF1"
+	private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+	private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+	private final Mode mode;
+	private final Path dataFile;
+	private final Path indexFile;
+	private final FileChannel data;
+	private final ToLongFunction<String> hash;
+
+	// record: index entries gathered until close
+	private final List<long[]> recorded = new ArrayList<>();
+	private final ReentrantLock appendLock = new ReentrantLock(); // not a monitor: file I/O would pin a virtual thread
+	private long appendPosition;
+
+	// replay: the memory-mapped index
+	private MappedByteBuffer index;
+	private int count;
+
+	// Package-private for tests that force hash collisions (TrafficArchiveTest)
+	TrafficArchive(Mode mode, Path dir, ToLongFunction<String> hash) {
+		this.mode = mode;
+		this.hash = hash;
+		this.dataFile = dir.resolve("data.bin");
+		this.indexFile = dir.resolve("index.bin");
+		try {
+			if (mode == Mode.RECORD) {
+				Files.createDirectories(dir);
+				Files.deleteIfExists(indexFile);
+				this.data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+			} else {
+				if (!Files.exists(dataFile))
+					throw new IllegalStateException("No recording to replay in " + dir.toAbsolutePath()
+							+ ": run once with traffic.mode=record first");
+				this.data = FileChannel.open(dataFile, StandardOpenOption.READ);
+				if (!Files.exists(indexFile)
+						|| Files.getLastModifiedTime(indexFile).compareTo(Files.getLastModifiedTime(dataFile)) < 0)
+					writeIndex(scan());
+				mapIndex();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Opens the archive configured in config.properties: {@code traffic.mode}
+	 * (off, record or replay) and {@code traffic.archive} (directory, default
+	 * recordings/default).
+	 *
+	 * @return The archive, or null when {@code traffic.mode=off}.
+	 * @throws IllegalStateException if the mode is unknown, or the archive
+	 *                               cannot be opened (e.g. replay without a
+	 *                               recording).
+	 */
+	public static TrafficArchive fromConfig() {
+		String value = ConfigReader.get("traffic.mode", "off").trim();
+		Mode mode;
+		try {
+			mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalStateException("traffic.mode must be off, record or replay: '" + value + "'");
+		}
+		if (mode == Mode.OFF)
+			return null;
+		Path dir = Path.of(ConfigReader.get("traffic.archive", "recordings/default").trim());
+		try {
+			return open(mode, dir);
+		} catch (UncheckedIOException e) {
+			throw new IllegalStateException("traffic.mode=" + value + ": cannot open the archive in "
+					+ dir.toAbsolutePath() + ": " + e.getCause().getMessage(), e);
+		}
+	}
+
+	/**
+	 * Opens an archive directory: for RECORD it is created and any previous
+	 * recording is replaced; for REPLAY it must hold a recording.
+	 *
+	 * @param mode RECORD or REPLAY.
+	 * @param dir  Parameter of type Path.
+	 * @return The result of type TrafficArchive.
+	 */
+	static TrafficArchive open(Mode mode, Path dir) {
+		if (mode == Mode.OFF)
+			throw new IllegalArgumentException("Nothing to open for " + mode);
+		return new TrafficArchive(mode, dir, TrafficArchive::hash);
+	}
+
+	/** @return RECORD or REPLAY. */
+	public Mode mode() {
+		return mode;
+	}
+
+	/**
+	 * Builds the lookup key of a request.
+	 *
+	 * @param method Parameter of type String.
+	 * @param url    Parameter of type String.
+	 * @return The result of type String.
+	 */
+	public static String key(String method, String url) {
+		int hash = url.indexOf('#');
+		return method.toUpperCase(Locale.ROOT) + " " + (hash >= 0 ? url.substring(0, hash) : url);
+	}
+
+	/**
+	 * Appends a response to the recording. Safe to call from several sessions.
+	 *
+	 * @param key      From {@link #key(String, String)}.
+	 * @param response The response to store.
+	 */
+	public void append(String key, Response response) {
+		if (mode != Mode.RECORD)
+			throw new IllegalStateException("Archive opened for " + mode);
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int size = Integer.BYTES + keyBytes.length + 2 * Integer.BYTES + Integer.BYTES + response.body().length;
+		List<byte[]> headerBytes = new ArrayList<>();
+		for (Map.Entry<String, String> h : response.headers()) {
+			byte[] name = h.getKey().getBytes(StandardCharsets.UTF_8);
+			byte[] value = h.getValue().getBytes(StandardCharsets.UTF_8);
+			headerBytes.add(name);
+			headerBytes.add(value);
+			size += 2 * Integer.BYTES + name.length + value.length;
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate(Integer.BYTES + size).order(ByteOrder.BIG_ENDIAN);
+		buf.putInt(size);
+		putBytes(buf, keyBytes);
+		buf.putInt(response.status());
+		buf.putInt(response.headers().size());
+		for (byte[] b : headerBytes)
+			putBytes(buf, b);
+		putBytes(buf, response.body());
+		buf.flip();
+
+		appendLock.lock();
+		try {
+			long offset = appendPosition;
+			while (buf.hasRemaining())
+				appendPosition += data.write(buf, appendPosition);
+			recorded.add(new long[] { hash.applyAsLong(key), offset });
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 * Looks up the recorded response of a request.
+	 *
+	 * @param key From {@link #key(String, String)}.
+	 * @return The response, or empty if the request was never recorded.
+	 */
+	public Optional<Response> lookup(String key) {
+		if (mode != Mode.REPLAY)
+			throw new IllegalStateException("Archive opened for " + mode);
+		long h = hash.applyAsLong(key);
+		int lo = 0, hi = count - 1;
+		while (lo <= hi) { // leftmost entry with this hash
+			int mid = (lo + hi) >>> 1;
+			if (Long.compare(hashAt(mid), h) < 0)
+				lo = mid + 1;
+			else
+				hi = mid - 1;
+		}
+		for (int i = lo; i < count && hashAt(i) == h; i++) {
+			Response r = readIfKey(offsetAt(i), key);
+			if (r != null)
+				return Optional.of(r);
+		}
+		return Optional.empty();
+	}
+
+	/** Writes the index of a recording and releases the files. */
+	@Override
+	public void close() {
+		appendLock.lock();
+		try {
+			if (mode == Mode.RECORD) {
+				data.force(false);
+				writeIndex(new ArrayList<>(recorded));
+			}
+			data.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			appendLock.unlock();
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private long hashAt(int i) {
+		return index.getLong(HEADER_BYTES + i * ENTRY_BYTES);
+	}
+
+	private long offsetAt(int i) {
+		return index.getLong(HEADER_BYTES + i * ENTRY_BYTES + Long.BYTES);
+	}
+
+	private Response readIfKey(long offset, String key) {
+		try {
+			ByteBuffer len = ByteBuffer.allocate(Integer.BYTES);
+			readFully(len, offset);
+			ByteBuffer rec = ByteBuffer.allocate(len.flip().getInt());
+			readFully(rec, offset + Integer.BYTES);
+			rec.flip();
+
+			if (!key.equals(new String(getBytes(rec), StandardCharsets.UTF_8)))
+				return null; // hash collision
+			int status = rec.getInt();
+			int headers = rec.getInt();
+			List<Map.Entry<String, String>> list = new ArrayList<>(headers);
+			for (int i = 0; i < headers; i++)
+				list.add(Map.entry(new String(getBytes(rec), StandardCharsets.UTF_8),
+						new String(getBytes(rec), StandardCharsets.UTF_8)));
+			return new Response(status, List.copyOf(list), getBytes(rec));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Rebuilds the index entries from the data file; a truncated last record is ignored
+	private List<long[]> scan() throws IOException {
+		List<long[]> entries = new ArrayList<>();
+		long size = data.size();
+		long offset = 0;
+		ByteBuffer len = ByteBuffer.allocate(Integer.BYTES);
+		while (offset + Integer.BYTES <= size) {
+			len.clear();
+			readFully(len, offset);
+			int recordSize = len.flip().getInt();
+			if (recordSize <= 0 || offset + Integer.BYTES + recordSize > size)
+				break;
+			ByteBuffer keyLen = ByteBuffer.allocate(Integer.BYTES);
+			readFully(keyLen, offset + Integer.BYTES);
+			ByteBuffer keyBytes = ByteBuffer.allocate(keyLen.flip().getInt());
+			readFully(keyBytes, offset + 2L * Integer.BYTES);
+			entries.add(new long[] { hash.applyAsLong(new String(keyBytes.array(), StandardCharsets.UTF_8)), offset });
+			offset += Integer.BYTES + recordSize;
+		}
+		return entries;
+	}
+
+	// Stable sort: among equal hashes the earliest record comes first and wins
+	private void writeIndex(List<long[]> entries) throws IOException {
+		long[][] sorted = entries.toArray(long[][]::new);
+		Arrays.sort(sorted, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+		ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + sorted.length * ENTRY_BYTES);
+		buf.putLong(MAGIC).putInt(sorted.length);
+		for (long[] e : sorted)
+			buf.putLong(e[0]).putLong(e[1]);
+		buf.flip();
+
+		Path tmp = Files.createTempFile(indexFile.getParent(), "index", ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+			while (buf.hasRemaining())
+				out.write(buf);
+		}
+		Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void mapIndex() throws IOException {
+		try (FileChannel ch = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+			index = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // stays valid after close
+		}
+		if (index.getLong(0) != MAGIC)
+			throw new IllegalStateException("Not a traffic index: " + indexFile);
+		count = index.getInt(Long.BYTES);
+	}
+
+	private void readFully(ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			int n = data.read(buf, position + buf.position());
+			if (n < 0)
+				throw new IOException("Unexpected end of " + dataFile);
+		}
+	}
+
+	private static void putBytes(ByteBuffer buf, byte[] bytes) {
+		buf.putInt(bytes.length).put(bytes);
+	}
+
+	private static byte[] getBytes(ByteBuffer buf) {
+		byte[] bytes = new byte[buf.getInt()];
+		buf.get(bytes);
+		return bytes;
+	}
+
+	// 64-bit FNV-1a of the UTF-8 key
+	private static long hash(String key) {
+		long h = 0xcbf29ce484222325L;
+		for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b & 0xff;
+			h *= 0x100000001b3L;
+		}
+		return h;
+	}
+}
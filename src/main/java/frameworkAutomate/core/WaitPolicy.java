@@ -0,0 +1,61 @@
+package frameworkAutomate.core;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * How implicit and explicit waits are combined, from {@code wait.policy}.
+ * <p>
+ * Mixing both multiplies latency: every {@code findElement} inside an explicit
+ * wait poll may block for the whole implicit timeout, so a negative check can
+ * take implicit x polls instead of failing fast.
+ */
+public enum WaitPolicy {
+
+	/**
+	 * Implicit wait forced to 0: all waiting goes through {@link Waits}, and
+	 * state checks such as {@link BasePage#isDisplayed} answer immediately.
+	 */
+	EXPLICIT,
+
+	/** Legacy behaviour: {@code implicit.timeout} is applied on top of explicit waits. */
+	MIXED;
+
+	private static final Logger LOG = Logger.getLogger(WaitPolicy.class.getName());
+	private static final AtomicBoolean WARNED = new AtomicBoolean(); // the mixing warning, once per JVM
+
+	/**
+	 * Returns the configured policy.
+	 *
+	 * @return The value of {@code wait.policy} (explicit or mixed), mixed if
+	 *         missing.
+	 */
+	public static WaitPolicy current() {
+		return valueOf(ConfigReader.get("wait.policy", "mixed").trim().toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * Returns the implicit timeout to apply to new sessions and flags, once per
+	 * JVM, configurations that mix implicit and explicit waits.
+	 *
+	 * @param configuredSec The value of {@code implicit.timeout}.
+	 * @return 0 under {@link #EXPLICIT}, the configured value otherwise.
+	 */
+	int implicitSeconds(int configuredSec) {
+		if (configuredSec <= 0)
+			return 0;
+		if (this == EXPLICIT) {
+			LOG.fine(() -> "wait.policy=explicit: ignoring implicit.timeout=" + configuredSec);
+			return 0;
+		}
+		if (WARNED.compareAndSet(false, true))
+			LOG.warning(() -> String.format(
+					"wait.policy=mixed with implicit.timeout=%ds: each negative lookup inside an explicit wait can "
+							+ "block for the implicit timeout. Use wait.policy=explicit or implicit.timeout=0.",
+					configuredSec));
+		return configuredSec;
+	}
+}
@@ -3,8 +3,10 @@ package frameworkAutomate.core;
 import frameworkAutomate.utils.ConfigReader;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.*;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -15,23 +17,70 @@ import java.util.function.Function;
  * This class centralizes explicit waits, safe element interactions, scrolling
  * helpers, page/URL synchronization, and small resilience mechanisms to reduce
  * test flakiness. It is designed to be extended by concrete Page Objects.
+ * <p>
+ * With {@code wait.engine=observer}, {@link #visible}, {@link #present},
+ * {@link #invisible}, {@link #textPresent} and {@link #attributeToBe} wait
+ * inside the page: one async script installs a MutationObserver and returns as
+ * soon as the condition holds, instead of polling over the wire. If the page
+ * navigates away mid-wait, the rest of the timeout falls back to polling.
  */
 
 public class Waits {
 
+	private static final String OBSERVE = JsLocators.FUNCTIONS + """
+			var done = arguments[arguments.length - 1];
+			var kind = arguments[0], spec = arguments[1], expected = arguments[2], attr = arguments[3];
+			function check() {
+			  var el = __find(spec);
+			  switch (kind) {
+			    case 'present': return el;
+			    case 'visible': return __visible(el) ? el : null;
+			    case 'invisible': return !__visible(el);
+			    case 'text': return !!el && (el.innerText || el.textContent || '').indexOf(expected) >= 0;
+			    case 'attribute':
+			      if (!el) return false;
+			      var v = el.getAttribute(attr);
+			      if (v === null && attr in el) v = String(el[attr]);
+			      return v === expected;
+			  }
+			}
+			function safeCheck() { try { return check(); } catch (e) { return null; } }
+			var first = safeCheck();
+			if (first) { done({ ok: true, value: first }); return; }
+			var finished = false, observer, tick, timer;
+			function finish(result) {
+			  if (finished) return;
+			  finished = true;
+			  observer.disconnect(); clearInterval(tick); clearTimeout(timer);
+			  done(result);
+			}
+			function recheck() { var r = safeCheck(); if (r) finish({ ok: true, value: r }); }
+			observer = new MutationObserver(recheck);
+			observer.observe(document, { subtree: true, childList: true, attributes: true, characterData: true });
+			tick = setInterval(recheck, 50); // style/layout changes that mutate nothing
+			timer = setTimeout(function () { finish({ ok: false }); }, arguments[4]);
+			""";
+
 	private final WebDriver driver;
 	private final WebDriverWait wait;
 	private final Duration defaultTimeout;
 	private final Duration defaultPolling;
+	private final Duration initialPolling;
+	private final PollingStrategy strategy;
+	private final boolean observer;
 
 	public Waits(WebDriver driver) {
 		this.driver = Objects.requireNonNull(driver, "driver cannot be null");
 
 		int timeoutSec = ConfigReader.getInt("explicit.timeout", 10);
 		int pollingMs = ConfigReader.getInt("explicit.polling", 200);
+		int initialPollingMs = ConfigReader.getInt("explicit.polling.initial", 5);
 
 		this.defaultTimeout = Duration.ofSeconds(timeoutSec);
 		this.defaultPolling = Duration.ofMillis(pollingMs);
+		this.initialPolling = Duration.ofMillis(initialPollingMs);
+		this.strategy = PollingStrategy.from(ConfigReader.get("explicit.polling.strategy", "fixed"));
+		this.observer = "observer".equalsIgnoreCase(ConfigReader.get("wait.engine", "polling").trim());
 
 		this.wait = new WebDriverWait(driver, defaultTimeout);
 
@@ -39,6 +88,42 @@ public class Waits {
 				.ignoring(StaleElementReferenceException.class).ignoring(ElementNotInteractableException.class);
 	}
 
+	// Same driver and settings, different polling strategy or timeout
+	private Waits(Waits base, PollingStrategy strategy, Duration timeout) {
+		this.driver = base.driver;
+		this.wait = timeout.equals(base.defaultTimeout) ? base.wait : null; // built for the base timeout only
+		this.defaultTimeout = timeout;
+		this.defaultPolling = base.defaultPolling;
+		this.initialPolling = base.initialPolling;
+		this.strategy = strategy;
+		this.observer = base.observer;
+	}
+
+	/**
+	 * Returns a view of these waits that polls with the given strategy, e.g.
+	 * {@code waits.withPolling(PollingStrategy.ADAPTIVE).visible(locator)}.
+	 *
+	 * @param strategy Parameter of type PollingStrategy.
+	 * @return The result of type Waits.
+	 */
+	public Waits withPolling(PollingStrategy strategy) {
+		return strategy == this.strategy ? this : new Waits(this, Objects.requireNonNull(strategy), defaultTimeout);
+	}
+
+	/**
+	 * Returns a view of these waits whose conditions give up after at most the
+	 * given time, e.g. what is left of a retry budget. A zero timeout still
+	 * evaluates each condition once.
+	 *
+	 * @param timeout Parameter of type Duration.
+	 * @return The result of type Waits.
+	 */
+	public Waits within(Duration timeout) {
+		if (timeout.compareTo(defaultTimeout) >= 0)
+			return this;
+		return new Waits(this, strategy, timeout.isNegative() ? Duration.ZERO : timeout);
+	}
+
 	/**
 	 * Create a temporal WebDriverWait with personalize time with the
 	 * polling/ignores.
@@ -52,15 +137,104 @@ public class Waits {
 	}
 
 	/**
-	 * Performs the 'until' operation.
+	 * Performs the 'until' operation, recording in {@link StepMetrics} how many
+	 * times the condition was evaluated and how long it took.
 	 *
-	 * @param Function<WebDriver Parameter.
-	 * @param condition          Parameter of type T>.
+	 * @param kind      The wait method, e.g. visible; the metrics label, so it
+	 *                  never holds a locator or expected text.
+	 * @param condition Parameter of type Function<WebDriver, T>.
 	 * @return The result of type T.
 	 */
 
-	private <T> T until(Function<WebDriver, T> condition) {
-		return wait.until(condition);
+	private <T> T until(String kind, Function<WebDriver, T> condition) {
+		return until(kind, condition, defaultTimeout);
+	}
+
+	private <T> T until(String kind, Function<WebDriver, T> condition, Duration timeout) {
+		CountingCondition<T> counted = new CountingCondition<>(condition);
+		long start = System.nanoTime();
+		boolean timedOut = true;
+		try {
+			T result = waitFor(timeout).until(counted);
+			timedOut = false;
+			return result;
+		} finally {
+			StepMetrics.recordWait(kind, counted.polls, System.nanoTime() - start, timeout.toNanos(), timedOut);
+		}
+	}
+
+	// The adaptive sleeper keeps per-wait state, so it needs its own WebDriverWait
+	private WebDriverWait waitFor(Duration timeout) {
+		if (strategy == PollingStrategy.FIXED && wait != null && timeout.equals(defaultTimeout))
+			return wait;
+		Sleeper sleeper = strategy == PollingStrategy.FIXED ? Sleeper.SYSTEM_SLEEPER
+				: new PollingStrategy.BackoffSleeper(initialPolling, defaultPolling);
+		WebDriverWait custom = new WebDriverWait(driver, timeout, defaultPolling, Clock.systemDefaultZone(), sleeper);
+		custom.ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
+				.ignoring(ElementNotInteractableException.class);
+		return custom;
+	}
+
+	/**
+	 * Waits for a DOM condition inside the page with a single async script, or
+	 * polls when the observer engine is off or cannot evaluate the locator.
+	 *
+	 * @param kind      present, visible, invisible, text or attribute.
+	 * @param locator   The locator the condition is about.
+	 * @param expected  Expected text or attribute value, if any.
+	 * @param attribute Attribute name, if any.
+	 * @param polling   The equivalent polling condition.
+	 * @return The element for present/visible, Boolean.TRUE otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T observe(String kind, By locator, String expected, String attribute, ExpectedCondition<T> polling) {
+		if (!observer || !JsLocators.supports(locator))
+			return until(kind, polling);
+
+		long start = System.nanoTime();
+		Map<String, Object> result;
+		try {
+			result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(OBSERVE, kind,
+					JsLocators.toSpec(locator), expected, attribute, defaultTimeout.toMillis());
+		} catch (JavascriptException | ScriptTimeoutException e) {
+			// The document was replaced mid-wait or the script timeout is too short: poll for the rest
+			Duration remaining = defaultTimeout.minusNanos(System.nanoTime() - start);
+			if (remaining.isNegative() || remaining.isZero()) {
+				StepMetrics.recordWait(kind, 1, System.nanoTime() - start, defaultTimeout.toNanos(), true);
+				throw new TimeoutException("Expected condition failed: waiting for " + polling, e);
+			}
+			return until(kind, polling, remaining);
+		}
+
+		boolean ok = Boolean.TRUE.equals(result.get("ok"));
+		StepMetrics.recordWait(kind, 1, System.nanoTime() - start, defaultTimeout.toNanos(), !ok);
+		if (!ok)
+			throw new TimeoutException(
+					String.format("Expected condition failed: waiting for %s (tried for %d second(s) with a MutationObserver)",
+							polling, defaultTimeout.toSeconds()));
+		Object value = result.get("value");
+		return (T) (value instanceof WebElement ? value : Boolean.TRUE);
+	}
+
+	/** Counts evaluations and keeps the description used in timeout messages. */
+	private static final class CountingCondition<T> implements Function<WebDriver, T> {
+		private final Function<WebDriver, T> delegate;
+		private int polls;
+
+		private CountingCondition(Function<WebDriver, T> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public T apply(WebDriver driver) {
+			polls++;
+			return delegate.apply(driver);
+		}
+
+		@Override
+		public String toString() {
+			return delegate.toString();
+		}
 	}
 
 	/* ---------- Basic waits ---------- */
@@ -72,7 +246,7 @@ public class Waits {
 	 * @return The result of type WebElement.
 	 */
 	public WebElement visible(By locator) {
-		return until(ExpectedConditions.visibilityOfElementLocated(locator));
+		return observe("visible", locator, null, null, ExpectedConditions.visibilityOfElementLocated(locator));
 	}
 
 	/**
@@ -83,7 +257,7 @@ public class Waits {
 	 */
 
 	public WebElement present(By locator) {
-		return until(ExpectedConditions.presenceOfElementLocated(locator));
+		return observe("present", locator, null, null, ExpectedConditions.presenceOfElementLocated(locator));
 	}
 
 	/**
@@ -93,7 +267,7 @@ public class Waits {
 	 * @return The result of type WebElement.
 	 */
 	public WebElement clickable(By locator) {
-		return until(ExpectedConditions.elementToBeClickable(locator));
+		return until("clickable", ExpectedConditions.elementToBeClickable(locator));
 	}
 
 	/**
@@ -104,7 +278,7 @@ public class Waits {
 	 */
 
 	public boolean invisible(By locator) {
-		return until(ExpectedConditions.invisibilityOfElementLocated(locator));
+		return observe("invisible", locator, null, null, ExpectedConditions.invisibilityOfElementLocated(locator));
 	}
 
 	/**
@@ -116,7 +290,7 @@ public class Waits {
 	 */
 
 	public boolean textPresent(By locator, String text) {
-		return until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+		return observe("text", locator, text, null, ExpectedConditions.textToBePresentInElementLocated(locator, text));
 	}
 
 	/**
@@ -127,7 +301,7 @@ public class Waits {
 	 */
 
 	public List<WebElement> visibleAll(By locator) {
-		return until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+		return until("visibleAll", ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
 	}
 
 	/**
@@ -138,7 +312,7 @@ public class Waits {
 	 */
 
 	public List<WebElement> presenceOfAll(By locator) {
-		return until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+		return until("presenceOfAll", ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
 	}
 
 	/**
@@ -150,7 +324,7 @@ public class Waits {
 	 */
 
 	public List<WebElement> numberOfElementsToBe(By locator, int size) {
-		return until(ExpectedConditions.numberOfElementsToBe(locator, size));
+		return until("numberOfElementsToBe", ExpectedConditions.numberOfElementsToBe(locator, size));
 	}
 
 	/*
@@ -164,11 +338,19 @@ public class Waits {
 	 */
 
 	public boolean documentReady() {
-		return until(d -> {
-			try {
-				return "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState"));
-			} catch (JavascriptException e) {
-				return false;
+		return until("documentReady", new ExpectedCondition<Boolean>() {
+			@Override
+			public Boolean apply(WebDriver d) {
+				try {
+					return "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState"));
+				} catch (JavascriptException e) {
+					return false;
+				}
+			}
+
+			@Override
+			public String toString() {
+				return "document.readyState to be \"complete\"";
 			}
 		});
 	}
@@ -181,7 +363,7 @@ public class Waits {
 	 */
 	public boolean urlContains(String fragment) {
 
-		return until(ExpectedConditions.urlContains(fragment));
+		return until("urlContains", ExpectedConditions.urlContains(fragment));
 	}
 
 	/**
@@ -192,7 +374,7 @@ public class Waits {
 	 */
 
 	public boolean urlToBe(String url) {
-		return until(ExpectedConditions.urlToBe(url));
+		return until("urlToBe", ExpectedConditions.urlToBe(url));
 	}
 
 	/**
@@ -203,7 +385,7 @@ public class Waits {
 	 */
 
 	public boolean titleContains(String text) {
-		return until(ExpectedConditions.titleContains(text));
+		return until("titleContains", ExpectedConditions.titleContains(text));
 	}
 
 	/**
@@ -214,7 +396,7 @@ public class Waits {
 	 */
 
 	public boolean titleIs(String title) {
-		return until(ExpectedConditions.titleIs(title));
+		return until("titleIs", ExpectedConditions.titleIs(title));
 	}
 
 	/*
@@ -231,7 +413,7 @@ public class Waits {
 	 */
 
 	public boolean attributeToBe(By locator, String name, String value) {
-		return until(ExpectedConditions.attributeToBe(locator, name, value));
+		return observe("attribute", locator, value, name, ExpectedConditions.attributeToBe(locator, name, value));
 	}
 
 	/**
@@ -243,7 +425,7 @@ public class Waits {
 	 * @return The result of type boolean.
 	 */
 	public boolean attributeContains(By locator, String name, String value) {
-		return until(ExpectedConditions.attributeContains(locator, name, value));
+		return until("attributeContains", ExpectedConditions.attributeContains(locator, name, value));
 	}
 
 	/**
@@ -254,7 +436,7 @@ public class Waits {
 	 */
 
 	public boolean stalenessOf(WebElement element) {
-		return until(ExpectedConditions.stalenessOf(element));
+		return until("stalenessOf", ExpectedConditions.stalenessOf(element));
 	}
 
 	/**
@@ -266,7 +448,7 @@ public class Waits {
 	 */
 
 	public boolean elementSelectionStateToBe(By locator, boolean selected) {
-		return until(ExpectedConditions.elementSelectionStateToBe(locator, selected));
+		return until("elementSelectionStateToBe", ExpectedConditions.elementSelectionStateToBe(locator, selected));
 	}
 
 	/* ============================ Frames / Alerts ============================ */
@@ -277,7 +459,7 @@ public class Waits {
 	 * @return The result of type WebDriver.
 	 */
 	public WebDriver frameToBeAvailableAndSwitchToIt(By locator) {
-		return until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(locator));
+		return until("frameToBeAvailableAndSwitchToIt", ExpectedConditions.frameToBeAvailableAndSwitchToIt(locator));
 	}
 
 	/**
@@ -286,6 +468,6 @@ public class Waits {
 	 * @return The result of type Alert.
 	 */
 	public Alert alertIsPresent() {
-		return until(ExpectedConditions.alertIsPresent());
+		return until("alertIsPresent", ExpectedConditions.alertIsPresent());
 	}
 }
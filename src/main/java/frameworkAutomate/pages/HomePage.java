@@ -1,9 +1,10 @@
 package frameworkAutomate.pages;
 
-import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
@@ -16,6 +17,10 @@ public class HomePage extends BasePage {
 	// Locators
 	private final By elementsCardText = By.cssSelector("div.category-cards .card-body h5");
 
+	// Card index for the URL it was built on; rebuilt after navigation or staleness
+	private Map<String, WebElement> cardIndex;
+	private String cardIndexUrl;
+
 	public HomePage(WebDriver driver) {
 		super(driver);
 		this.driver = driver;
@@ -31,14 +36,12 @@ public class HomePage extends BasePage {
 	 *                                found
 	 */
 	public WebElement getCardByName(String cardName) {
-		List<WebElement> cards = getListOfElements(elementsCardText);
-		for (WebElement card : cards) {
-			if (card.getText().equalsIgnoreCase(cardName)) {
-				return card;
-			}
+		WebElement card = getCardIndex().get(normalizeText(cardName));
+		if (card == null) {
+			throw new NoSuchElementException(
+					String.format("The element with name '%s' was not found on the page.", cardName));
 		}
-		throw new NoSuchElementException(
-				String.format("The element with name '%s' was not found on the page.", cardName));
+		return card;
 	}
 
 	/**
@@ -49,13 +52,26 @@ public class HomePage extends BasePage {
 	 *                                found
 	 */
 	public void clickOnCardByName(String cardName) {
-		WebElement card = getCardByName(cardName);
-		if (card != null) {
-			card.click();
-		} else {
-			throw new NoSuchElementException(
-					String.format("The element with name '%s' was not found on the page.", cardName));
+		try {
+			getCardByName(cardName).click();
+		} catch (StaleElementReferenceException e) {
+			// the grid was re-rendered under the same URL
+			cardIndex = null;
+			getCardByName(cardName).click();
+		}
+		cardIndex = null; // the click navigates away
+	}
+
+	/* ---------- utilities ---------- */
+
+	// One getCurrentUrl() per lookup, plus one script call when the index must be rebuilt
+	private Map<String, WebElement> getCardIndex() {
+		String url = getCurrentUrl();
+		if (cardIndex == null || !url.equals(cardIndexUrl)) {
+			cardIndex = indexByText(elementsCardText);
+			cardIndexUrl = url;
 		}
+		return cardIndex;
 	}
 
 }
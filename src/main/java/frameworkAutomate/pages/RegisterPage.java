@@ -1,9 +1,15 @@
 package frameworkAutomate.pages;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 
 import frameworkAutomate.core.BasePage;
+import frameworkAutomate.core.ElementState;
 
 public class RegisterPage extends BasePage {
 
@@ -20,9 +26,98 @@ public class RegisterPage extends BasePage {
 	private final By passwordInput = By.id("password");
 	private final By captchaCheckbox = By.id("recaptcha-anchor");
 	private final By registerButton = By.id("register");
+	private final By outputMessage = By.id("output");
+	private final By invalidInputs = By.cssSelector("#userForm input.is-invalid");
 
 	public RegisterPage(WebDriver driver) {
 		super(driver);
 		this.driver = driver;
 	}
+
+	/**
+	 * Reads every label, input and the register button in a single round-trip.
+	 * 
+	 * @return The state of each form locator, in page order.
+	 */
+	public Map<By, ElementState> getFormState() {
+		find(registerButton);
+		return readStates(firstNameLabel, firstNameInput, lastNameLabel, lastNameInput, userNameLabel, userNameInput,
+				passwordLabel, passwordInput, registerButton);
+	}
+
+	/**
+	 * Checks that all labels, inputs and the register button are visible.
+	 * 
+	 * @return true if the whole form is displayed, false otherwise.
+	 */
+	public boolean isFormDisplayed() {
+		return getFormState().values().stream().allMatch(ElementState::visible);
+	}
+
+	/**
+	 * Fills the four inputs; an empty value leaves its input empty.
+	 *
+	 * @param firstName Parameter of type String.
+	 * @param lastName  Parameter of type String.
+	 * @param userName  Parameter of type String.
+	 * @param password  Parameter of type String.
+	 */
+	public void fillForm(String firstName, String lastName, String userName, String password) {
+		fill(firstNameInput, firstName);
+		fill(lastNameInput, lastName);
+		fill(userNameInput, userName);
+		fill(passwordInput, password);
+	}
+
+	/** Ticks the "I'm not a robot" checkbox. */
+	public void checkCaptcha() {
+		click(captchaCheckbox);
+	}
+
+	/** Clicks the register button. */
+	public void submit() {
+		click(registerButton);
+	}
+
+	/**
+	 * Fills the form and submits it, without the captcha.
+	 *
+	 * @param firstName Parameter of type String.
+	 * @param lastName  Parameter of type String.
+	 * @param userName  Parameter of type String.
+	 * @param password  Parameter of type String.
+	 */
+	public void register(String firstName, String lastName, String userName, String password) {
+		fillForm(firstName, lastName, userName, password);
+		submit();
+	}
+
+	/**
+	 * Reads the message shown under the form after submitting.
+	 *
+	 * @return The message, e.g. "Please verify reCaptcha to register!".
+	 */
+	public String getOutputMessage() {
+		return read(outputMessage);
+	}
+
+	/**
+	 * Lists the inputs flagged as invalid after submitting. The flags are set by
+	 * the click itself, so this does not wait.
+	 *
+	 * @return The ids of the invalid inputs, in page order.
+	 */
+	public List<String> getInvalidFields() {
+		List<String> ids = new ArrayList<>();
+		for (WebElement input : driver.findElements(invalidInputs))
+			ids.add(input.getDomAttribute("id"));
+		return ids;
+	}
+
+	/* ---------- utilities ---------- */
+
+	private void fill(By input, String value) {
+		if (value != null && !value.isEmpty())
+			write(input, value);
+	}
 }
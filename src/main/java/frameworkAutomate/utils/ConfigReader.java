@@ -1,34 +1,250 @@
 package frameworkAutomate.utils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Configuration of the run, read from layered sources; a later layer wins:
+ * <ol>
+ * <li>{@code config.properties} on the classpath;</li>
+ * <li>the profile {@code config-<name>.properties}, when {@code config.profile}
+ * is set (as -D, as the environment variable SFW_CONFIG_PROFILE or in the
+ * file), e.g. one per environment or per shard;</li>
+ * <li>environment variables named after a key of the files, upper case with
+ * underscores and the prefix {@value #ENV_PREFIX}: {@code SFW_BASE_URL}
+ * overrides {@code base.url}. The prefix keeps variables other tools set, such
+ * as {@code BROWSER}, out of the configuration;</li>
+ * <li>system properties: {@code -Dbase.url=...};</li>
+ * <li>{@link #override(String, String)} calls.</li>
+ * </ol>
+ * The layers are merged into an immutable snapshot whose numbers and booleans
+ * are parsed once, so readers take no lock and parse nothing. With
+ * {@code config.reload=true} the files are watched and a changed file is
+ * merged into a new snapshot that replaces the old one atomically. Classes that
+ * keep a value in a static field keep the value they read first.
+ * <p>
+ * A blank value counts as missing for {@link #getInt(String, int)},
+ * {@link #getLong(String, long)} and {@link #getBoolean(String, boolean)}:
+ * {@code -Dshard.total=} means the default.
+ */
 public class ConfigReader {
-	private static final Properties prop = new Properties();
+
+	private static final String FILE = "config.properties";
+	private static final String ENV_PREFIX = "SFW_";
+	private static final Logger LOG = Logger.getLogger(ConfigReader.class.getName());
+
+	private static final Map<String, String> OVERRIDES = new ConcurrentHashMap<>();
+	private static final AtomicReference<Snapshot> CURRENT = new AtomicReference<>(Snapshot.load());
+
 	static {
-		try (var stream = ConfigReader.class.getClassLoader().getResourceAsStream("config.properties")) {
-			prop.load(stream);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+		if (Boolean.parseBoolean(CURRENT.get().get("config.reload", "false").trim()))
+			watch();
 	}
 
 	/* ---------- Access methods ---------- */
 	public static String get(String key) {
-		return prop.getProperty(key);
+		return CURRENT.get().get(key, null);
 	}
-	
+
 	 /** Returns the value or the given default if the key is missing. */
     public static String get(String key, String defaultVal) {
-        return prop.getProperty(key, defaultVal);
+        return CURRENT.get().get(key, defaultVal);
     }
 
 	public static int getInt(String key, int defaultVal) {
-	    String raw = prop.getProperty(key);
-	    return raw == null ? defaultVal : Integer.parseInt(raw);
+		Value v = CURRENT.get().values.get(key);
+		if (v == null || v.blank)
+			return defaultVal;
+		if (v.asInt == null)
+			throw new NumberFormatException("Not an int: " + key + "=" + v.raw);
+		return v.asInt;
 	}
-	
+
 	public static long getLong(String key) {
-		return Long.parseLong(get(key));
+		Value v = CURRENT.get().values.get(key);
+		if (v == null || v.asLong == null)
+			throw new NumberFormatException("Not a long: " + key + "=" + (v == null ? null : v.raw));
+		return v.asLong;
+	}
+
+	/** Returns the value as a long, or the given default if the key is missing. */
+	public static long getLong(String key, long defaultVal) {
+		Value v = CURRENT.get().values.get(key);
+		return v == null || v.blank ? defaultVal : getLong(key);
+	}
+
+	/**
+	 * Returns the value as a boolean ("true", ignoring case and spaces, is true;
+	 * anything else false), or the given default if the key is missing or blank.
+	 */
+	public static boolean getBoolean(String key, boolean defaultVal) {
+		Value v = CURRENT.get().values.get(key);
+		return v == null || v.blank ? defaultVal : v.asBoolean;
+	}
+
+	/**
+	 * Replaces a value for the rest of the run, e.g. base.url when tests run
+	 * against a local stand-in server. Classes that already read the key keep
+	 * the old value: override before they are used.
+	 */
+	public static void override(String key, String value) {
+		OVERRIDES.put(key, value);
+		CURRENT.updateAndGet(s -> s.with(key, value));
+	}
+
+	/** Re-reads every layer now, as the file watch does. */
+	public static void reload() {
+		Snapshot files = Snapshot.load();
+		// Re-applied on every attempt: an override made meanwhile fails the swap and is merged on retry
+		CURRENT.updateAndGet(old -> files.withAll(OVERRIDES));
+	}
+
+	/* ---------- utilities ---------- */
+
+	/** A value and its parsed forms, parsed when the snapshot is built. */
+	private static final class Value {
+		private final String raw;
+		private final Integer asInt;
+		private final Long asLong;
+		private final boolean asBoolean;
+		private final boolean blank;
+
+		Value(String raw) {
+			this.raw = raw;
+			String t = raw.trim();
+			this.blank = t.isEmpty();
+			Long l;
+			try {
+				l = Long.valueOf(t);
+			} catch (NumberFormatException e) {
+				l = null;
+			}
+			this.asLong = l;
+			this.asInt = l != null && l == l.intValue() ? Integer.valueOf(l.intValue()) : null;
+			this.asBoolean = Boolean.parseBoolean(t);
+		}
+	}
+
+	/** The merged layers. Never modified once published. */
+	private static final class Snapshot {
+		private final Map<String, Value> values;
+
+		private Snapshot(Map<String, Value> values) {
+			this.values = values;
+		}
+
+		String get(String key, String defaultVal) {
+			Value v = values.get(key);
+			return v == null ? defaultVal : v.raw;
+		}
+
+		Snapshot with(String key, String value) {
+			return withAll(Map.of(key, value));
+		}
+
+		Snapshot withAll(Map<String, String> entries) {
+			if (entries.isEmpty())
+				return this;
+			Map<String, Value> copy = new HashMap<>(values);
+			entries.forEach((k, v) -> copy.put(k, new Value(v)));
+			return new Snapshot(Map.copyOf(copy));
+		}
+
+		static Snapshot load() {
+			Properties files = new Properties();
+			read(FILE, files);
+			String profile = profile(files);
+			if (profile != null)
+				read("config-" + profile + ".properties", files);
+
+			Map<String, String> merged = new HashMap<>();
+			for (String key : files.stringPropertyNames()) {
+				String env = System.getenv(ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+				merged.put(key, env != null ? env : files.getProperty(key));
+			}
+			Properties system = System.getProperties();
+			for (String key : system.stringPropertyNames())
+				merged.put(key, system.getProperty(key));
+
+			Map<String, Value> values = new HashMap<>();
+			merged.forEach((k, v) -> values.put(k, new Value(v)));
+			return new Snapshot(Map.copyOf(values));
+		}
+
+		private static String profile(Properties files) {
+			String profile = System.getProperty("config.profile", System.getenv(ENV_PREFIX + "CONFIG_PROFILE"));
+			if (profile == null)
+				profile = files.getProperty("config.profile");
+			return profile == null || profile.isBlank() ? null : profile.trim();
+		}
+
+		// Both the base file and a selected profile must exist: a typo in config.profile fails fast
+		private static void read(String resource, Properties into) {
+			try (InputStream stream = ConfigReader.class.getClassLoader().getResourceAsStream(resource)) {
+				if (stream == null)
+					throw new IllegalStateException("Missing configuration on the classpath: " + resource);
+				into.load(stream);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	// Watches the directory of config.properties, when it is a plain file (e.g. target/classes)
+	private static void watch() {
+		URL url = ConfigReader.class.getClassLoader().getResource(FILE);
+		if (url == null || !"file".equals(url.getProtocol()))
+			return;
+		Path dir;
+		try {
+			dir = Path.of(url.toURI()).getParent();
+		} catch (URISyntaxException e) {
+			return;
+		}
+		Thread watcher = new Thread(() -> {
+			try (WatchService service = FileSystems.getDefault().newWatchService()) {
+				dir.register(service, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+				while (!Thread.currentThread().isInterrupted()) {
+					WatchKey key = service.take();
+					boolean changed = false;
+					for (WatchEvent<?> event : key.pollEvents()) {
+						String name = String.valueOf(event.context());
+						changed |= name.startsWith("config") && name.endsWith(".properties");
+					}
+					key.reset();
+					if (changed && Files.exists(dir.resolve(FILE))) {
+						try {
+							reload();
+						} catch (RuntimeException e) { // half-written file: keep the last good snapshot
+							LOG.log(Level.WARNING, "Could not reload configuration, keeping the previous values", e);
+						}
+					}
+				}
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "Configuration reload disabled", e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, "config-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,348 @@
+package frameworkAutomate.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.openqa.selenium.json.Json;
+
+/**
+ * Test data streamed row by row from a CSV or JSON Lines file, for TestNG data
+ * providers: {@code return DataRows.open("data/users.csv").sharded().iterator();}.
+ * <p>
+ * Nothing is loaded up front. A file on disk (or a classpath resource that is a
+ * plain file) is memory-mapped in windows of {@value #WINDOW} bytes and split
+ * into lines as the iterator advances; a resource inside a jar is read through
+ * a buffered stream. A line is only decoded and parsed when its row is
+ * returned, so rows left to other shards cost a newline scan.
+ * <p>
+ * CSV files start with a header row; fields may be quoted ({@code "a, b"},
+ * {@code ""} for a quote) but not span lines. JSON Lines files hold one object
+ * per line; their columns are the keys of the first line unless given with
+ * {@link #columns(String...)}. Blank lines are skipped. Each row is an
+ * {@code Object[]} in column order: strings for CSV, JSON values for JSON
+ * Lines (missing keys are null).
+ * <p>
+ * Keep the data provider sequential: with {@code parallel = true} TestNG reads
+ * every row into memory before running the first one, and runs the rows on a
+ * thread pool of its own that {@code execution.threads} and
+ * {@code execution.max.sessions} do not govern. A sequential provider reads
+ * each row when it runs; TestNG still keeps one result per invocation, so
+ * split large matrices with {@link #sharded()}.
+ */
+public final class DataRows implements Iterable<Object[]> {
+
+	private static final int WINDOW = 8 * 1024 * 1024;
+	private static final Json JSON = new Json();
+
+	private final String source;
+	private final boolean jsonLines;
+	private final List<String> columns;
+	private final int shardIndex;
+	private final int shardTotal;
+
+	private DataRows(String source, boolean jsonLines, List<String> columns, int shardIndex, int shardTotal) {
+		this.source = source;
+		this.jsonLines = jsonLines;
+		this.columns = columns;
+		this.shardIndex = shardIndex;
+		this.shardTotal = shardTotal;
+	}
+
+	/**
+	 * Opens a data file by extension: .csv, or .jsonl/.ndjson for JSON Lines.
+	 *
+	 * @param source A classpath resource (e.g. data/users.csv) or a file path.
+	 * @return The result of type DataRows.
+	 */
+	public static DataRows open(String source) {
+		String lower = source.toLowerCase(Locale.ROOT);
+		if (lower.endsWith(".csv"))
+			return new DataRows(source, false, List.of(), 1, 1);
+		if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson"))
+			return new DataRows(source, true, List.of(), 1, 1);
+		throw new IllegalArgumentException("Not a .csv, .jsonl or .ndjson file: " + source);
+	}
+
+	/**
+	 * Selects and orders the columns of each row.
+	 *
+	 * @param names Column names, as in the CSV header or the JSON keys.
+	 * @return A copy of this data set.
+	 */
+	public DataRows columns(String... names) {
+		return new DataRows(source, jsonLines, List.of(names), shardIndex, shardTotal);
+	}
+
+	/**
+	 * Keeps one row in {@code total}, starting at row {@code index} (1-based).
+	 *
+	 * @param index Parameter of type int.
+	 * @param total Parameter of type int.
+	 * @return A copy of this data set.
+	 */
+	public DataRows shard(int index, int total) {
+		if (total < 1 || index < 1 || index > total)
+			throw new IllegalArgumentException("Shard " + index + "/" + total);
+		return new DataRows(source, jsonLines, columns, index, total);
+	}
+
+	/**
+	 * Keeps the rows of the shard this JVM runs: {@code shard.index} of
+	 * {@code shard.total}, usually given as -D; all rows when they are unset.
+	 *
+	 * @return A copy of this data set.
+	 */
+	public DataRows sharded() {
+		return shard(ConfigReader.getInt("shard.index", 1), ConfigReader.getInt("shard.total", 1));
+	}
+
+	/** Opens the file; each iterator reads it again from the start. */
+	@Override
+	public Iterator<Object[]> iterator() {
+		return new Rows(lines());
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private Lines lines() {
+		try {
+			Path file = Path.of(source);
+			if (Files.isRegularFile(file))
+				return new MappedLines(file);
+			URL url = DataRows.class.getClassLoader().getResource(source);
+			if (url == null)
+				throw new IllegalArgumentException("No data file or classpath resource: " + source);
+			if ("file".equals(url.getProtocol()))
+				return new MappedLines(Path.of(url.toURI()));
+			return new ReaderLines(url.openStream());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (URISyntaxException e) {
+			throw new IllegalArgumentException(source, e);
+		}
+	}
+
+	/** Rows of a file, parsed on demand. */
+	private final class Rows implements Iterator<Object[]> {
+		private final Lines lines;
+		private int[] picks; // CSV: column index of each returned value
+		private List<String> keys; // JSON Lines: key of each returned value
+		private long row; // data rows seen, shard filter included
+		private byte[] pending;
+
+		Rows(Lines lines) {
+			this.lines = lines;
+			if (!jsonLines)
+				header();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (pending == null) {
+				byte[] line = lines.next();
+				if (line == null)
+					return false;
+				if (isBlank(line))
+					continue;
+				if (row++ % shardTotal == shardIndex - 1)
+					pending = line;
+			}
+			return true;
+		}
+
+		@Override
+		public Object[] next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			String line = new String(pending, StandardCharsets.UTF_8);
+			pending = null;
+			return jsonLines ? json(line) : csv(line);
+		}
+
+		private void header() {
+			byte[] line;
+			do {
+				line = lines.next();
+			} while (line != null && isBlank(line));
+			if (line == null)
+				throw new IllegalArgumentException("Empty CSV, no header: " + source);
+			List<String> header = splitCsv(stripBom(new String(line, StandardCharsets.UTF_8)));
+			List<String> wanted = columns.isEmpty() ? header : columns;
+			picks = new int[wanted.size()];
+			for (int i = 0; i < picks.length; i++) {
+				picks[i] = header.indexOf(wanted.get(i));
+				if (picks[i] < 0)
+					throw new IllegalArgumentException("No column '" + wanted.get(i) + "' in " + source + ": " + header);
+			}
+		}
+
+		private Object[] csv(String line) {
+			List<String> fields = splitCsv(line);
+			Object[] values = new Object[picks.length];
+			for (int i = 0; i < picks.length; i++)
+				values[i] = picks[i] < fields.size() ? fields.get(picks[i]) : "";
+			return values;
+		}
+
+		private Object[] json(String line) {
+			Map<String, Object> object = JSON.toType(stripBom(line), Json.MAP_TYPE);
+			if (keys == null)
+				keys = columns.isEmpty() ? List.copyOf(object.keySet()) : columns;
+			Object[] values = new Object[keys.size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = object.get(keys.get(i));
+			return values;
+		}
+	}
+
+	private static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static boolean isBlank(byte[] line) {
+		for (byte b : line)
+			if (b != ' ' && b != '\t')
+				return false;
+		return true;
+	}
+
+	private static String stripBom(String s) {
+		return s.startsWith("\uFEFF") ? s.substring(1) : s;
+	}
+
+	/** Raw lines without their terminator, null at the end. */
+	private interface Lines {
+		byte[] next();
+	}
+
+	// Maps the file window by window; a line cut by the window end is read again from the next one
+	private static final class MappedLines implements Lines {
+		private final FileChannel channel;
+		private final long size;
+		private MappedByteBuffer window;
+		private long windowStart;
+
+		MappedLines(Path file) throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.READ);
+			this.size = channel.size();
+			map(0);
+		}
+
+		@Override
+		public byte[] next() {
+			if (window == null)
+				return null;
+			int start = window.position();
+			for (int i = start; i < window.limit(); i++) {
+				if (window.get(i) == '\n') {
+					window.position(i + 1);
+					return slice(start, i);
+				}
+			}
+			long lineStart = windowStart + start;
+			if (windowStart + window.limit() >= size) { // last line, without a newline
+				window.position(window.limit());
+				byte[] last = slice(start, window.limit());
+				close();
+				return last.length == 0 ? null : last;
+			}
+			if (start == 0)
+				throw new IllegalStateException("Line longer than " + WINDOW + " bytes at offset " + lineStart);
+			map(lineStart);
+			return next();
+		}
+
+		private byte[] slice(int from, int to) {
+			if (to > from && window.get(to - 1) == '\r')
+				to--;
+			byte[] line = new byte[to - from];
+			window.get(from, line);
+			return line;
+		}
+
+		private void map(long start) {
+			try {
+				windowStart = start;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void close() {
+			window = null;
+			try {
+				channel.close(); // mappings stay valid until collected
+			} catch (IOException ignored) {
+				// read-only
+			}
+		}
+	}
+
+	private static final class ReaderLines implements Lines {
+		private final BufferedReader reader;
+		private boolean closed;
+
+		ReaderLines(InputStream in) {
+			this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public byte[] next() {
+			if (closed)
+				return null;
+			try {
+				String line = reader.readLine();
+				if (line == null) {
+					closed = true;
+					reader.close();
+					return null;
+				}
+				return line.getBytes(StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
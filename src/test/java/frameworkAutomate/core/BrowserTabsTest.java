@@ -0,0 +1,53 @@
+package frameworkAutomate.core;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import frameworkAutomate.utils.ConfigReader;
+
+public class BrowserTabsTest {
+
+	private BrowserTabs tabs;
+
+	@BeforeClass
+	public void startTabs() {
+		tabs = new BrowserTabs(DriverFactory::createDriver);
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopTabs() {
+		if (tabs != null)
+			tabs.shutdown();
+	}
+
+	@Test(description = "Validate that two tabs of one browser do not share cookies or storage")
+	public void Test_01_ValidateTabsAreIsolated() {
+		WebDriver first = tabs.lease();
+		WebDriver second = tabs.lease();
+		try {
+			first.get(ConfigReader.get("base.url"));
+			second.get(ConfigReader.get("base.url"));
+
+			first.manage().addCookie(new Cookie("tab", "first"));
+			((JavascriptExecutor) first)
+					.executeScript("localStorage.setItem('tab', 'first'); sessionStorage.setItem('tab', 'first');");
+			second.navigate().refresh();
+
+			Assert.assertEquals(first.manage().getCookieNamed("tab").getValue(), "first");
+			Assert.assertEquals(((JavascriptExecutor) first).executeScript("return localStorage.getItem('tab');"), "first");
+			Assert.assertNull(second.manage().getCookieNamed("tab"), "The cookie leaked into the other tab");
+			Assert.assertNull(((JavascriptExecutor) second).executeScript("return localStorage.getItem('tab');"),
+					"localStorage leaked into the other tab");
+			Assert.assertNull(((JavascriptExecutor) second).executeScript("return sessionStorage.getItem('tab');"),
+					"sessionStorage leaked into the other tab");
+		} finally {
+			tabs.release(first);
+			tabs.release(second);
+		}
+	}
+}
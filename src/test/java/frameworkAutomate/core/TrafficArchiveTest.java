@@ -0,0 +1,131 @@
+package frameworkAutomate.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TrafficArchiveTest {
+
+	private Path dir;
+
+	@BeforeMethod
+	public void createArchiveDir() throws IOException {
+		dir = Files.createTempDirectory("traffic-archive");
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void deleteArchiveDir() throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path p : files.sorted(Comparator.reverseOrder()).toList())
+				Files.deleteIfExists(p);
+		}
+	}
+
+	@Test(description = "Validate that recorded responses replay with their status, headers and body")
+	public void Test_01_ValidateRecordedResponsesReplay() {
+		String page = TrafficArchive.key("get", "https://demoqa.com/elements#top");
+		String post = TrafficArchive.key("POST", "https://demoqa.com/api/register");
+		try (TrafficArchive archive = TrafficArchive.open(TrafficArchive.Mode.RECORD, dir)) {
+			archive.append(page, response(200, "<html>elements</html>"));
+			archive.append(post, response(201, "{\"id\":1}"));
+			archive.append(page, response(500, "recorded later")); // the first recording of a key wins
+		}
+
+		try (TrafficArchive archive = TrafficArchive.open(TrafficArchive.Mode.REPLAY, dir)) {
+			assertResponse(archive.lookup(TrafficArchive.key("GET", "https://demoqa.com/elements")), 200,
+					"<html>elements</html>");
+			assertResponse(archive.lookup(post), 201, "{\"id\":1}");
+			Assert.assertEquals(archive.lookup(post).get().headers(),
+					List.of(Map.entry("Content-Type", "text/plain"), Map.entry("X-Recorded", "yes")));
+			Assert.assertTrue(archive.lookup(TrafficArchive.key("GET", "https://demoqa.com/forms")).isEmpty(),
+					"A request that was never recorded must miss");
+		}
+	}
+
+	@Test(description = "Validate that keys with the same hash each replay their own response")
+	public void Test_02_ValidateHashCollisionsResolveByKey() {
+		String first = TrafficArchive.key("GET", "https://demoqa.com/a");
+		String second = TrafficArchive.key("GET", "https://demoqa.com/b");
+		String third = TrafficArchive.key("GET", "https://demoqa.com/c");
+		try (TrafficArchive archive = new TrafficArchive(TrafficArchive.Mode.RECORD, dir, key -> 42L)) {
+			archive.append(second, response(200, "b"));
+			archive.append(first, response(200, "a"));
+			archive.append(third, response(404, "c"));
+		}
+
+		try (TrafficArchive archive = new TrafficArchive(TrafficArchive.Mode.REPLAY, dir, key -> 42L)) {
+			assertResponse(archive.lookup(first), 200, "a");
+			assertResponse(archive.lookup(second), 200, "b");
+			assertResponse(archive.lookup(third), 404, "c");
+			Assert.assertTrue(archive.lookup(TrafficArchive.key("GET", "https://demoqa.com/d")).isEmpty(),
+					"A colliding key that was never recorded must miss");
+		}
+	}
+
+	@Test(description = "Validate that a stale index is rebuilt from the data file, ignoring a truncated record")
+	public void Test_03_ValidateIndexIsRebuiltAfterCrash() throws IOException {
+		String page = TrafficArchive.key("GET", "https://demoqa.com/");
+		try (TrafficArchive archive = TrafficArchive.open(TrafficArchive.Mode.RECORD, dir)) {
+			archive.append(page, response(200, "home"));
+		}
+
+		// A later recording that crashed: one complete record, one cut short, and the old index left behind
+		Path data = dir.resolve("data.bin");
+		Path index = dir.resolve("index.bin");
+		Path other = Files.createTempDirectory("traffic-archive-other");
+		String forms = TrafficArchive.key("GET", "https://demoqa.com/forms");
+		try (TrafficArchive archive = TrafficArchive.open(TrafficArchive.Mode.RECORD, other)) {
+			archive.append(forms, response(200, "forms"));
+		}
+		byte[] complete = Files.readAllBytes(other.resolve("data.bin"));
+		Files.write(data, complete, StandardOpenOption.APPEND);
+		Files.write(data, ByteBuffer.allocate(Integer.BYTES + 3).putInt(1000).put(new byte[3]).array(),
+				StandardOpenOption.APPEND);
+		Files.setLastModifiedTime(index, FileTime.fromMillis(Files.getLastModifiedTime(data).toMillis() - 60_000));
+		Files.delete(other.resolve("data.bin"));
+		Files.delete(other.resolve("index.bin"));
+		Files.delete(other);
+
+		try (TrafficArchive archive = TrafficArchive.open(TrafficArchive.Mode.REPLAY, dir)) {
+			assertResponse(archive.lookup(page), 200, "home");
+			assertResponse(archive.lookup(forms), 200, "forms");
+		}
+		Assert.assertTrue(Files.getLastModifiedTime(index).compareTo(Files.getLastModifiedTime(data)) >= 0,
+				"The rebuilt index must be newer than the data");
+	}
+
+	@Test(description = "Validate that replaying a directory without a recording fails with a clear message")
+	public void Test_04_ValidateReplayWithoutRecordingFails() {
+		IllegalStateException e = Assert.expectThrows(IllegalStateException.class,
+				() -> TrafficArchive.open(TrafficArchive.Mode.REPLAY, dir.resolve("missing")));
+		Assert.assertTrue(e.getMessage().contains("traffic.mode=record"), e.getMessage());
+	}
+
+	/* ---------- utilities ---------- */
+
+	private static TrafficArchive.Response response(int status, String body) {
+		return new TrafficArchive.Response(status,
+				List.of(Map.entry("Content-Type", "text/plain"), Map.entry("X-Recorded", "yes")),
+				body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void assertResponse(Optional<TrafficArchive.Response> found, int status, String body) {
+		Assert.assertTrue(found.isPresent(), "Expected a recorded response");
+		Assert.assertEquals(found.get().status(), status);
+		Assert.assertEquals(new String(found.get().body(), StandardCharsets.UTF_8), body);
+	}
+}
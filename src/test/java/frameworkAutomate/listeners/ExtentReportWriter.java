@@ -0,0 +1,71 @@
+package frameworkAutomate.listeners;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+/**
+ * Writes to an in-memory {@link ExtentReports}; the HTML is rendered on
+ * {@link #flush()}.
+ */
+final class ExtentReportWriter implements ReportWriter {
+
+	private final ExtentReports extent;
+	private final Map<TestLog, ExtentTest> tests = new HashMap<>(); // open tests only
+
+	ExtentReportWriter(ExtentReports extent) {
+		this.extent = extent;
+	}
+
+	@Override
+	public void start(TestLog test, String name, String description) {
+		tests.put(test, extent.createTest(name, description));
+	}
+
+	@Override
+	public void log(TestLog test, Status status, String details) {
+		ExtentTest t = tests.get(test);
+		if (t != null)
+			t.log(status, details);
+	}
+
+	@Override
+	public void fail(TestLog test, Throwable error) {
+		ExtentTest t = tests.get(test);
+		if (t != null)
+			t.fail(error);
+	}
+
+	@Override
+	public void screenshot(TestLog test, String path) {
+		ExtentTest t = tests.get(test);
+		if (t != null)
+			t.addScreenCaptureFromPath(path);
+	}
+
+	@Override
+	public void end(TestLog test) {
+		tests.remove(test);
+	}
+
+	@Override
+	public void summary(String title, List<String> lines) {
+		StringBuilder html = new StringBuilder("<h5>").append(escape(title)).append("</h5><pre>");
+		for (String line : lines)
+			html.append(escape(line)).append('\n');
+		extent.addTestRunnerOutput(html.append("</pre>").toString());
+	}
+
+	@Override
+	public void flush() {
+		extent.flush();
+	}
+
+	private static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
@@ -1,29 +1,50 @@
 package frameworkAutomate.listeners;
 
 import frameworkAutomate.core.DriverFactory;
+import frameworkAutomate.core.DriverPrespawner;
 import frameworkAutomate.core.ExtentManager;
+import frameworkAutomate.core.StepMetrics;
 import org.testng.*;
-import com.aventstack.extentreports.*;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 
-import java.io.File;
-import java.nio.file.Files;
+import java.lang.System.Logger.Level;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.List;
 
 /**
  * TestNG listener that generates an ExtentReports report with automatic
  * screenshots in case of failure.
+ * <p>
+ * Each test execution gets its own {@link TestLog}, bound to the worker thread
+ * and to its {@link ITestResult}, so parallel tests never share a context. Log
+ * calls are queued and written to the report by a single background thread.
+ * With {@code report.mode=incremental} each test is appended to a JSON Lines
+ * file as soon as it ends, and the HTML is rendered from that file.
+ * <p>
+ * At the end of the suite, {@link StepMetrics} are exported next to the report
+ * (Prometheus text, .prom) and the slowest steps are summarized in it.
  */
 
-public class ExtentTestListener implements ITestListener {
+public class ExtentTestListener implements ITestListener, ISuiteListener {
 
-	private final ExtentReports extent = ExtentManager.getExtent();
-	private static ExtentTest test; // one reference per method execution
-	
-	public static ExtentTest getTest() {
-		return test;
+	private static final System.Logger LOG = System.getLogger(ExtentTestListener.class.getName());
+	private static final String LOG_ATTRIBUTE = TestLog.class.getName();
+	private static final ReportSink SINK = new ReportSink(ReportWriter.fromConfig());
+	private static final ThreadLocal<TestLog> CURRENT = new ThreadLocal<>(); // one log per running test
+	private static final ScreenshotPipeline SCREENSHOTS = new ScreenshotPipeline(Path.of("reports", "screenshots"));
+
+	/**
+	 * Returns the log of the test running on the current thread.
+	 * <p>
+	 * Returns a {@link TestLog}, not an ExtentTest: the report entry is created
+	 * later, on the report writer thread, and does not exist at all with
+	 * {@code report.mode=incremental}. TestLog has the same info, pass, fail,
+	 * warning, skip and addScreenCaptureFromPath methods; code that kept the
+	 * result in an {@code ExtentTest} variable must use {@code TestLog} instead.
+	 */
+	public static TestLog getTest() {
+		return CURRENT.get();
 	}
 
 	/* ---------- TestNG hooks ---------- */
@@ -31,49 +52,97 @@ public class ExtentTestListener implements ITestListener {
 	// This method is executed at the start of all tests
 	@Override
 	public void onTestStart(ITestResult result) {
-		test = extent.createTest(result.getMethod().getMethodName());
+		TestLog log = new TestLog(SINK, result.getMethod().getMethodName(), result.getMethod().getDescription());
+		result.setAttribute(LOG_ATTRIBUTE, log);
+		CURRENT.set(log);
 	}
 
 	// This method is executed when the test is successful
 	@Override
 	public void onTestSuccess(ITestResult result) {
-		test.pass("Test passed");
+		TestLog log = logOf(result);
+		logSessionHandover(log);
+		log.pass("Test passed");
+		log.end();
+		CURRENT.remove();
 	}
 
 	// This method is executed when the test fails
 	@Override
 	public void onTestFailure(ITestResult result) {
-		test.fail(result.getThrowable());
+		TestLog log = logOf(result);
+		logSessionHandover(log);
+		log.fail(result.getThrowable());
 
+		// Only the capture happens on the test thread; encoding and writing run in the background
 		try {
-			String path = takeScreenshot(result.getMethod().getMethodName());
-			test.addScreenCaptureFromPath(path);
+			byte[] png = ((TakesScreenshot) DriverFactory.getDriver()).getScreenshotAs(OutputType.BYTES);
+			SCREENSHOTS.submit(png, result.getMethod().getMethodName(), (path, error) -> {
+				if (error == null)
+					log.addScreenCaptureFromPath(path);
+				else
+					log.warning("Could not attach screenshot: " + error.getMessage());
+				log.end();
+			});
 		} catch (Exception e) {
-			test.warning("Could not attach screenshot: " + e.getMessage());
+			log.warning("Could not attach screenshot: " + e.getMessage());
+			log.end();
 		}
+		CURRENT.remove();
 	}
 
 	// This method is executed when a test is skipped
 	@Override
 	public void onTestSkipped(ITestResult result) {
-		test.skip("Test skipped");
+		TestLog log = logOf(result);
+		log.skip("Test skipped");
+		log.end();
+		CURRENT.remove();
 	}
 
 	// This method is executed at the end of a test
 	@Override
 	public void onFinish(ITestContext context) {
-		extent.flush(); // writes the final HTML
+		SCREENSHOTS.awaitPending(60);
+		SINK.submit(ReportWriter::flush); // writes the HTML
+		SINK.drain(60);
+	}
+
+	// Runs once per suite, after all its <test> blocks: exports step timings and summarizes them in the report
+	@Override
+	public void onFinish(ISuite suite) {
+		Path metrics = ExtentManager.reportFile("prom");
+		try {
+			StepMetrics.writePrometheus(metrics);
+		} catch (RuntimeException e) {
+			LOG.log(Level.WARNING, "Could not write step metrics to " + metrics, e);
+		}
+		List<String> slowest = StepMetrics.summary(20);
+		slowest.add("");
+		slowest.add("All series: " + metrics);
+		SINK.submit(writer -> writer.summary("Slowest steps (p50/p95 are bucket upper bounds)", slowest));
+		SINK.submit(ReportWriter::flush);
+		SINK.drain(60);
 	}
 
 	/* ---------- utilities ---------- */
 
-	// This method takes a screenshot and saves it in the reports directory
-	private String takeScreenshot(String method) throws Exception {
-		File src = ((TakesScreenshot) DriverFactory.getDriver()).getScreenshotAs(OutputType.FILE);
+	// Skipped tests may never have started (e.g. failed @BeforeMethod)
+	private TestLog logOf(ITestResult result) {
+		TestLog log = (TestLog) result.getAttribute(LOG_ATTRIBUTE);
+		if (log == null) {
+			log = new TestLog(SINK, result.getMethod().getMethodName(), result.getMethod().getDescription());
+			result.setAttribute(LOG_ATTRIBUTE, log);
+		}
+		return log;
+	}
 
-		Path dest = Path.of("reports", "screenshots", method + "_" + System.currentTimeMillis() + ".png");
-		Files.createDirectories(dest.getParent());
-		Files.copy(src.toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
-		return dest.toString();
+	// In prespawn mode, reports how much browser startup overlapped with the previous test
+	private void logSessionHandover(TestLog log) {
+		DriverPrespawner.Handover handover = DriverFactory.getLastHandover();
+		if (handover != null) {
+			log.info(String.format("Browser startup %d ms, setup waited %d ms, hidden %d ms",
+					handover.startup().toMillis(), handover.waited().toMillis(), handover.saved().toMillis()));
+		}
 	}
-}
\ No newline at end of file
+}
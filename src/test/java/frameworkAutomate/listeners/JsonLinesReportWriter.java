@@ -0,0 +1,164 @@
+package frameworkAutomate.listeners;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.json.Json;
+
+import com.aventstack.extentreports.Status;
+
+import frameworkAutomate.core.ExtentManager;
+import frameworkAutomate.core.JsonLinesReport;
+
+/**
+ * Streams finished tests to an append-only JSON Lines file.
+ * <p>
+ * Only tests that are still running are held in memory, each with at most
+ * {@code maxEvents} steps plus its failure; a test is written as one line, and the line is
+ * flushed to disk, as soon as it ends. Memory therefore depends on the number
+ * of parallel tests, not on the size of the suite, and a crashed JVM leaves
+ * every finished test on disk. {@link #flush()} renders the HTML from the file
+ * with {@link JsonLinesReport}.
+ */
+final class JsonLinesReportWriter implements ReportWriter {
+
+	private final Json json = new Json();
+	private final Path file;
+	private final int maxEvents;
+	private final BufferedWriter out;
+	private final Map<TestLog, OpenTest> open = new HashMap<>();
+
+	JsonLinesReportWriter(Path file, int maxEvents) {
+		this.file = file;
+		this.maxEvents = Math.max(1, maxEvents);
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+					StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void start(TestLog test, String name, String description) {
+		open.put(test, new OpenTest(name, description));
+	}
+
+	@Override
+	public void log(TestLog test, Status status, String details) {
+		OpenTest t = open.get(test);
+		if (t != null)
+			t.add(status, details);
+	}
+
+	@Override
+	public void fail(TestLog test, Throwable error) {
+		OpenTest t = open.get(test);
+		if (t != null) {
+			StringWriter trace = new StringWriter();
+			error.printStackTrace(new PrintWriter(trace));
+			t.add(Status.FAIL, trace.toString());
+		}
+	}
+
+	@Override
+	public void screenshot(TestLog test, String path) {
+		OpenTest t = open.get(test);
+		if (t != null)
+			t.screenshots.add(path);
+	}
+
+	@Override
+	public void end(TestLog test) {
+		OpenTest t = open.remove(test);
+		if (t != null)
+			append(t.toMap());
+	}
+
+	@Override
+	public void summary(String title, List<String> lines) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("summary", title);
+		map.put("lines", lines);
+		append(map);
+	}
+
+	@Override
+	public void flush() {
+		JsonLinesReport.render(file, JsonLinesReport.htmlFor(file), ExtentManager.reportName());
+	}
+
+	@Override
+	public void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private void append(Map<String, Object> record) {
+		try {
+			StringBuilder line = new StringBuilder();
+			json.newOutput(line).setPrettyPrint(false).writeClassName(false).write(record);
+			out.append(line).append('\n');
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private final class OpenTest {
+		private final String name;
+		private final String description;
+		private final long start = System.currentTimeMillis();
+		private final List<Map<String, Object>> events = new ArrayList<>();
+		private final List<String> screenshots = new ArrayList<>();
+		private long last = start; // the final status, not the screenshots written after it
+		private Status status = Status.PASS;
+		private int dropped;
+
+		OpenTest(String name, String description) {
+			this.name = name;
+			this.description = description;
+		}
+
+		void add(Status level, String details) {
+			last = System.currentTimeMillis();
+			status = Status.max(status, level);
+			if (events.size() < maxEvents || level == Status.FAIL) // the failure is never dropped
+				events.add(Map.of("time", last, "status", level.toLower(), "details",
+						details == null ? "" : details));
+			else
+				dropped++;
+		}
+
+		Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("name", name);
+			map.put("description", description);
+			map.put("status", status.toLower());
+			map.put("start", start);
+			map.put("durationMs", last - start);
+			map.put("events", events);
+			map.put("screenshots", screenshots);
+			map.put("droppedEvents", dropped);
+			return map;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package frameworkAutomate.listeners;
+
+import java.lang.System.Logger.Level;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Single-writer queue in front of a {@link ReportWriter}.
+ * <p>
+ * Test threads only enqueue report operations on a lock-free queue and go on;
+ * one daemon thread applies them in order, and parks while the queue is empty.
+ * A producer unparks it only when it is parked. The report backend is
+ * therefore touched by a single thread and never slows down or serializes the
+ * workers.
+ */
+final class ReportSink {
+
+	private static final System.Logger LOG = System.getLogger(ReportSink.class.getName());
+	private static final Consumer<ReportWriter> STOP = writer -> {
+	};
+
+	private final ReportWriter writer;
+	private final Queue<Consumer<ReportWriter>> queue = new ConcurrentLinkedQueue<>();
+	private final Thread thread;
+	private volatile boolean parked; // set by the writer before it re-checks the queue and parks
+
+	ReportSink(ReportWriter writer) {
+		this.writer = Objects.requireNonNull(writer, "writer cannot be null");
+		this.thread = new Thread(this::run, "extent-report-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Enqueues an operation to run on the writer thread.
+	 *
+	 * @param operation Parameter of type Consumer<ReportWriter>.
+	 */
+	void submit(Consumer<ReportWriter> operation) {
+		queue.offer(operation);
+		if (parked)
+			LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Blocks until everything enqueued so far has been applied.
+	 *
+	 * @param timeoutSec Maximum wait in seconds.
+	 */
+	void drain(long timeoutSec) {
+		CountDownLatch done = new CountDownLatch(1);
+		submit(e -> done.countDown());
+		try {
+			done.await(timeoutSec, TimeUnit.SECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Applies everything enqueued so far, closes the writer and stops the
+	 * writer thread. Operations submitted afterwards are dropped.
+	 *
+	 * @param timeoutSec Maximum wait in seconds.
+	 */
+	void close(long timeoutSec) {
+		submit(ReportWriter::close);
+		submit(STOP);
+		try {
+			thread.join(TimeUnit.SECONDS.toMillis(timeoutSec));
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void run() {
+		while (true) {
+			Consumer<ReportWriter> operation = queue.poll();
+			if (operation == null) {
+				// Flag first, then re-check: a producer that offered meanwhile either is seen here or sees the flag
+				parked = true;
+				if (queue.isEmpty())
+					LockSupport.park(this);
+				parked = false;
+				if (Thread.interrupted())
+					return;
+				continue;
+			}
+			if (operation == STOP)
+				return;
+			try {
+				operation.accept(writer);
+			} catch (RuntimeException e) {
+				// a broken log line must not stop the report
+				LOG.log(Level.WARNING, "Report operation failed", e);
+			}
+		}
+	}
+}
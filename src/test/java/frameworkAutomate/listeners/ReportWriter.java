@@ -0,0 +1,51 @@
+package frameworkAutomate.listeners;
+
+import java.util.List;
+
+import com.aventstack.extentreports.Status;
+
+import frameworkAutomate.core.ExtentManager;
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Backend of the {@link ReportSink}. Every method runs on the single report
+ * writer thread, so implementations need no synchronization.
+ * <p>
+ * {@code report.mode} selects the backend: {@code extent} (default) keeps the
+ * whole run in ExtentReports and renders it on flush; {@code incremental}
+ * appends each finished test to a JSON Lines file and renders the HTML from
+ * that file.
+ */
+interface ReportWriter {
+
+	void start(TestLog test, String name, String description);
+
+	void log(TestLog test, Status status, String details);
+
+	void fail(TestLog test, Throwable error);
+
+	void screenshot(TestLog test, String path);
+
+	/** The test will receive no more events. */
+	void end(TestLog test);
+
+	/** Adds a run-level block of preformatted text, outside any test. */
+	void summary(String title, List<String> lines);
+
+	/** Makes everything written so far visible in the HTML report. */
+	void flush();
+
+	/** Releases files held by the backend; it receives no more calls. */
+	default void close() {
+	}
+
+	static ReportWriter fromConfig() {
+		String mode = ConfigReader.get("report.mode", "extent").trim();
+		return switch (mode) {
+		case "extent" -> new ExtentReportWriter(ExtentManager.getExtent());
+		case "incremental" -> new JsonLinesReportWriter(ExtentManager.reportFile("jsonl"),
+				ConfigReader.getInt("report.incremental.max.events", 500));
+		default -> throw new IllegalArgumentException("Unknown report.mode: " + mode);
+		};
+	}
+}
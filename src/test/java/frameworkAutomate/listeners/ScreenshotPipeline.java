@@ -0,0 +1,162 @@
+package frameworkAutomate.listeners;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Background encoder for failure screenshots.
+ * <p>
+ * The test thread only hands over the PNG bytes returned by the driver. A small
+ * pool downscales ({@code screenshot.scale}, percent) and re-encodes them
+ * ({@code screenshot.format} png or jpg, {@code screenshot.quality} percent for
+ * jpg), and writes each distinct image once: identical captures, typical of an
+ * environment outage, share one file.
+ */
+final class ScreenshotPipeline {
+
+	private final Path directory;
+	private final String format;
+	private final float quality;
+	private final double scale;
+	private final ExecutorService encoders;
+
+	private final Map<String, CompletableFuture<String>> byHash = new ConcurrentHashMap<>();
+	private final Set<CompletableFuture<String>> pending = ConcurrentHashMap.newKeySet();
+
+	ScreenshotPipeline(Path directory) {
+		this.directory = directory;
+		this.format = ConfigReader.get("screenshot.format", "png").trim().toLowerCase(Locale.ROOT);
+		this.quality = ConfigReader.getInt("screenshot.quality", 80) / 100f;
+		this.scale = ConfigReader.getInt("screenshot.scale", 100) / 100d;
+
+		int threads = Math.max(1, ConfigReader.getInt("screenshot.threads", 2));
+		AtomicInteger seq = new AtomicInteger();
+		// Bounded: when encoders fall behind, the failing test encodes its own capture
+		this.encoders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(threads * 16), r -> {
+					Thread t = new Thread(r, "screenshot-encoder-" + seq.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	/**
+	 * Queues a capture for encoding.
+	 *
+	 * @param png     The PNG bytes returned by the driver.
+	 * @param name    Base file name, usually the test method.
+	 * @param written Called with the written path, or the error, once encoded.
+	 */
+	void submit(byte[] png, String name, BiConsumer<String, Throwable> written) {
+		CompletableFuture<String> done = CompletableFuture.supplyAsync(() -> sha256(png), encoders)
+				.thenCompose(hash -> byHash.computeIfAbsent(hash, h -> {
+					CompletableFuture<String> file = CompletableFuture.supplyAsync(() -> write(png, name, h), encoders);
+					file.whenComplete((p, e) -> {
+						if (e != null)
+							byHash.remove(h); // let a later identical capture try again
+					});
+					return file;
+				})).whenComplete(written);
+		pending.add(done);
+		done.whenComplete((p, e) -> pending.remove(done));
+	}
+
+	/**
+	 * Waits for every queued capture to be written and reported.
+	 *
+	 * @param timeoutSec Maximum wait in seconds.
+	 */
+	void awaitPending(long timeoutSec) {
+		try {
+			CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(timeoutSec, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			// failures are reported per screenshot
+		}
+	}
+
+	/* ---------------- PRIVATE ---------------- */
+
+	private String write(byte[] png, String name, String hash) {
+		try {
+			Files.createDirectories(directory);
+			Path dest = directory.resolve(name + "_" + hash.substring(0, 12) + "." + format);
+			if (scale >= 1 && format.equals("png")) {
+				Files.write(dest, png); // nothing to transform
+				return dest.toString();
+			}
+
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+			int width = Math.max(1, (int) Math.round(image.getWidth() * Math.min(1, scale)));
+			int height = Math.max(1, (int) Math.round(image.getHeight() * Math.min(1, scale)));
+			boolean jpg = format.equals("jpg") || format.equals("jpeg");
+			BufferedImage out = new BufferedImage(width, height,
+					jpg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = out.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(image, 0, 0, width, height, null);
+			g.dispose();
+
+			Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(jpg ? "jpeg" : format);
+			if (!writers.hasNext())
+				throw new IllegalArgumentException("Unsupported screenshot.format: " + format);
+			ImageWriter writer = writers.next();
+			try (OutputStream file = Files.newOutputStream(dest);
+					ImageOutputStream stream = ImageIO.createImageOutputStream(file)) {
+				writer.setOutput(stream);
+				ImageWriteParam param = writer.getDefaultWriteParam();
+				if (jpg) {
+					param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+					param.setCompressionQuality(quality);
+				}
+				writer.write(null, new IIOImage(out, null, null), param);
+			} finally {
+				writer.dispose();
+			}
+			return dest.toString();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
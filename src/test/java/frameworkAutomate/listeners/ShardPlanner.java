@@ -0,0 +1,239 @@
+package frameworkAutomate.listeners;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Splits the suite into balanced shards, so several machines or JVMs can run
+ * it in parallel and finish at about the same time.
+ * <p>
+ * Every run adds the duration of each test method (all its invocations) to a
+ * history file, {@code shard.history} (default
+ * test-history/durations.properties), smoothed over runs. The next run with
+ * {@code -Dshard.total=N -Dshard.index=i} (i from 1 to N) PLANS the shards
+ * from that history, longest test first, each into the shard with the least
+ * estimated time, and runs only shard i. Tests without history are estimated
+ * at the mean of the known ones.
+ * <p>
+ * The plan covers every {@code <test>} of the suite at once and is
+ * deterministic (ties go to the lower key and the lower shard), so every shard
+ * computes the same plan as long as it reads the same history file. The
+ * directory is git-ignored; share it between machines as a CI cache restored
+ * before the tests and saved after them (see the README). Without {@code shard.total} all tests
+ * run and only the history is updated.
+ * <p>
+ * Tests marked {@link ShardRows} are not planned: they run on every shard and
+ * split their data rows instead.
+ */
+public class ShardPlanner implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+	private static final double HISTORY_WEIGHT = 0.5; // of the previous estimate against the last run
+
+	// Static: TestNG may register the listener from testng.xml and from the surefire configuration
+	private static final Map<String, LongAdder> MEASURED = new ConcurrentHashMap<>();
+	private static final Map<ISuite, Set<String>> PLANS = new ConcurrentHashMap<>();
+
+	/* ---------- TestNG hooks ---------- */
+
+	// Called once per <test>, with the methods of that <test> only
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+		int total = shardSetting("shard.total", 1);
+		if (total <= 1)
+			return methods;
+
+		Set<String> mine = PLANS.computeIfAbsent(context.getSuite(), this::plan);
+		List<IMethodInstance> kept = new ArrayList<>();
+		for (IMethodInstance m : methods)
+			if (shardsRows(m.getMethod()) || mine.contains(key(m.getMethod())))
+				kept.add(m);
+		return kept;
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		measure(result);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		measure(result);
+	}
+
+	// Writes the history once the whole suite has run
+	@Override
+	public void onFinish(ISuite suite) {
+		PLANS.remove(suite);
+		if (MEASURED.isEmpty())
+			return;
+		Map<String, Long> run = new HashMap<>();
+		MEASURED.forEach((k, v) -> run.put(k, v.sum()));
+		MEASURED.clear();
+		try {
+			updateHistory(historyFile(), run);
+		} catch (IOException | UncheckedIOException e) {
+			Reporter.log("Could not update test duration history: " + e.getMessage(), true);
+		}
+	}
+
+	/* ---------- planning ---------- */
+
+	/**
+	 * Assigns tests to shards, longest processing time first.
+	 *
+	 * @param estimates Estimated milliseconds per test key.
+	 * @param shards    Number of shards.
+	 * @return One list of keys per shard.
+	 */
+	static List<List<String>> partition(Map<String, Long> estimates, int shards) {
+		List<Map.Entry<String, Long>> tests = new ArrayList<>(estimates.entrySet());
+		tests.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+		List<List<String>> bins = new ArrayList<>();
+		long[] load = new long[shards];
+		for (int i = 0; i < shards; i++)
+			bins.add(new ArrayList<>());
+		for (Map.Entry<String, Long> test : tests) {
+			int lightest = 0;
+			for (int i = 1; i < shards; i++)
+				if (load[i] < load[lightest])
+					lightest = i;
+			bins.get(lightest).add(test.getKey());
+			load[lightest] += test.getValue();
+		}
+		return bins;
+	}
+
+	/* ---------- utilities ---------- */
+
+	private Set<String> plan(ISuite suite) {
+		int total = shardSetting("shard.total", 1);
+		int index = shardSetting("shard.index", 1);
+		if (index < 1 || index > total)
+			throw new IllegalArgumentException("shard.index must be between 1 and " + total + ": " + index);
+
+		Map<String, Long> history = readHistory(historyFile());
+		long known = 0;
+		int count = 0;
+		Map<String, Long> estimates = new TreeMap<>();
+		for (ITestNGMethod method : suite.getAllMethods()) {
+			if (shardsRows(method))
+				continue;
+			Long millis = history.get(key(method));
+			estimates.put(key(method), millis);
+			if (millis != null) {
+				known += millis;
+				count++;
+			}
+		}
+		long fallback = count == 0 ? 1 : Math.max(1, known / count);
+		estimates.replaceAll((k, v) -> v == null ? fallback : v);
+
+		List<List<String>> shards = partition(estimates, total);
+		List<String> mine = shards.get(index - 1);
+		long estimate = mine.stream().mapToLong(estimates::get).sum();
+		long longest = shards.stream().mapToLong(s -> s.stream().mapToLong(estimates::get).sum()).max().orElse(0);
+		Reporter.log(String.format(Locale.ROOT,
+				"Shard %d/%d: %d of %d tests, estimated %.1f s (longest shard %.1f s, %d tests without history)", index,
+				total, mine.size(), estimates.size(), estimate / 1000.0, longest / 1000.0, estimates.size() - count),
+				true);
+		return Set.copyOf(mine);
+	}
+
+	private void measure(ITestResult result) {
+		MEASURED.computeIfAbsent(key(result.getMethod()), k -> new LongAdder())
+				.add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+	}
+
+	private static boolean shardsRows(ITestNGMethod method) {
+		return method.getConstructorOrMethod().getMethod().isAnnotationPresent(ShardRows.class);
+	}
+
+	private static String key(ITestNGMethod method) {
+		return method.getRealClass().getName() + "." + method.getMethodName();
+	}
+
+	// Usually given as -D, so each machine picks its shard without touching config.properties; blank means the default
+	private static int shardSetting(String key, int defaultVal) {
+		return ConfigReader.getInt(key, defaultVal);
+	}
+
+	private static Path historyFile() {
+		return Path.of(ConfigReader.get("shard.history", "test-history/durations.properties").trim());
+	}
+
+	private static Map<String, Long> readHistory(Path file) {
+		Map<String, Long> history = new HashMap<>();
+		if (!Files.exists(file))
+			return history;
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			props.load(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (String name : props.stringPropertyNames())
+			history.put(name, Long.parseLong(props.getProperty(name).trim()));
+		return history;
+	}
+
+	// Merges under a file lock: shards of one machine may finish together
+	private static void updateHistory(Path file, Map<String, Long> run) throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Files.createDirectories(dir);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			channel.lock(); // released when the channel closes
+			Properties props = new Properties();
+			channel.position(0);
+			props.load(Channels.newInputStream(channel));
+			run.forEach((key, millis) -> {
+				String previous = props.getProperty(key);
+				long smoothed = previous == null ? millis
+						: Math.round(HISTORY_WEIGHT * Long.parseLong(previous.trim()) + (1 - HISTORY_WEIGHT) * millis);
+				props.setProperty(key, String.valueOf(smoothed));
+			});
+
+			// Sorted, so copies from different shards diff cleanly
+			StringBuilder out = new StringBuilder("# Test durations in ms, written by ShardPlanner\n");
+			props.stringPropertyNames().stream().sorted(Comparator.naturalOrder())
+					.forEach(k -> out.append(k).append('=').append(props.getProperty(k)).append('\n'));
+			channel.truncate(0);
+			channel.position(0);
+			OutputStream os = Channels.newOutputStream(channel);
+			os.write(out.toString().getBytes(StandardCharsets.ISO_8859_1));
+			os.flush();
+		}
+	}
+}
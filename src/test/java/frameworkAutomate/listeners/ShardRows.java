@@ -0,0 +1,19 @@
+package frameworkAutomate.listeners;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a data-driven test whose data provider shards its rows (e.g. with
+ * {@code DataRows.sharded()}). {@link ShardPlanner} runs such a test on every
+ * shard instead of assigning it to one, so each shard runs its share of the
+ * rows.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ShardRows {
+}
@@ -0,0 +1,174 @@
+package frameworkAutomate.listeners;
+
+import java.lang.System.Logger.Level;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.IExecutorServiceFactory;
+import org.testng.TestNG;
+import org.testng.xml.XmlSuite;
+
+import frameworkAutomate.utils.ConfigReader;
+
+/**
+ * Runs parallel tests on virtual threads when {@code execution.threads=virtual}
+ * and the JVM is Java 21 or later.
+ * <p>
+ * A test spends almost all its time blocked on WebDriver round-trips and wait
+ * polling; on a virtual thread that costs a small heap-allocated stack instead
+ * of a platform thread. Each test gets its own virtual thread, and at most
+ * {@code execution.max.sessions} of them run at once (default: the pool size
+ * in {@code driver.mode=pool}, otherwise the {@code thread-count} of the
+ * {@code <test>}), since every running test holds a browser session. The
+ * limit is shared by all {@code <test>} blocks of the JVM.
+ * <p>
+ * The project compiles for Java 17, so the virtual-thread API is looked up by
+ * reflection; on an older JVM the tests run on the usual platform pool and a
+ * warning is logged. Registered as a listener, this class installs itself as
+ * TestNG's executor factory before the suites run; it can also be given to
+ * TestNG with {@code -threadpoolfactoryclass}.
+ */
+public class TestExecutorFactory implements IExecutorServiceFactory, IAlterSuiteListener {
+
+	private static final System.Logger LOG = System.getLogger(TestExecutorFactory.class.getName());
+	private static final boolean VIRTUAL = "virtual"
+			.equalsIgnoreCase(ConfigReader.get("execution.threads", "platform").trim());
+	private static final ThreadFactory VIRTUAL_THREADS = virtualThreadFactory();
+
+	private static volatile Semaphore sessions; // created by the first executor, shared by all
+
+	/* ---------- TestNG hooks ---------- */
+
+	@Override
+	public void alter(List<XmlSuite> suites) {
+		if (!VIRTUAL)
+			return;
+		if (VIRTUAL_THREADS == null) {
+			LOG.log(Level.WARNING, "execution.threads=virtual needs Java 21 or later (running {0}): using platform threads",
+					Runtime.version().feature());
+			return;
+		}
+		TestNG testng = runningTestNG();
+		if (testng != null)
+			testng.setExecutorServiceFactory(this);
+	}
+
+	@Override
+	public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+			BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+		if (VIRTUAL_THREADS == null)
+			return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue,
+					threadFactory);
+		return new LimitedExecutor(newThreadPerTaskExecutor(VIRTUAL_THREADS), sessions(maximumPoolSize));
+	}
+
+	/* ---------- utilities ---------- */
+
+	// Surefire configures TestNG from a map that has no -threadpoolfactoryclass entry, and no
+	// listener hook exposes the running instance, so the deprecated accessor is the only way in
+	@SuppressWarnings("deprecation")
+	private static TestNG runningTestNG() {
+		return TestNG.getDefault();
+	}
+
+	private static Semaphore sessions(int threadCount) {
+		Semaphore s = sessions;
+		if (s == null) {
+			synchronized (TestExecutorFactory.class) {
+				s = sessions;
+				if (s == null) {
+					int fallback = "pool".equalsIgnoreCase(ConfigReader.get("driver.mode", "fresh").trim())
+							? ConfigReader.getInt("driver.pool.max.size", 5)
+							: threadCount;
+					sessions = s = new Semaphore(Math.max(1, ConfigReader.getInt("execution.max.sessions", fallback)),
+							true);
+				}
+			}
+		}
+		return s;
+	}
+
+	// Thread.ofVirtual().name("test-vt-", 1).factory(), or null before Java 21
+	private static ThreadFactory virtualThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> type = Class.forName("java.lang.Thread$Builder");
+			builder = type.getMethod("name", String.class, long.class).invoke(builder, "test-vt-", 1L);
+			return (ThreadFactory) type.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	// Executors.newThreadPerTaskExecutor(factory), Java 21+
+	private static ExecutorService newThreadPerTaskExecutor(ThreadFactory factory) {
+		try {
+			Method m = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) m.invoke(null, factory);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Virtual threads are not available", e);
+		}
+	}
+
+	/** Starts every task at once and lets at most as many run as there are permits. */
+	private static final class LimitedExecutor extends AbstractExecutorService {
+		private final ExecutorService delegate;
+		private final Semaphore permits;
+
+		LimitedExecutor(ExecutorService delegate, Semaphore permits) {
+			this.delegate = delegate;
+			this.permits = permits;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			delegate.execute(() -> {
+				try {
+					permits.acquire(); // parks the virtual thread, not a carrier
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				try {
+					task.run();
+				} finally {
+					permits.release();
+				}
+			});
+		}
+
+		@Override
+		public void shutdown() {
+			delegate.shutdown();
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return delegate.shutdownNow();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return delegate.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return delegate.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			return delegate.awaitTermination(timeout, unit);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package frameworkAutomate.listeners;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+/**
+ * Report handle of one test execution.
+ * <p>
+ * Mirrors the logging methods of {@link ExtentTest}, but every call is only
+ * queued on the {@link ReportSink}; the {@link ReportWriter} applies it on the
+ * report writer thread.
+ */
+public final class TestLog {
+
+	private final ReportSink sink;
+
+	TestLog(ReportSink sink, String name, String description) {
+		this.sink = sink;
+		sink.submit(writer -> writer.start(this, name, description));
+	}
+
+	public TestLog info(String details) {
+		return log(Status.INFO, details);
+	}
+
+	public TestLog pass(String details) {
+		return log(Status.PASS, details);
+	}
+
+	public TestLog warning(String details) {
+		return log(Status.WARNING, details);
+	}
+
+	public TestLog skip(String details) {
+		return log(Status.SKIP, details);
+	}
+
+	public TestLog fail(String details) {
+		return log(Status.FAIL, details);
+	}
+
+	public TestLog fail(Throwable error) {
+		sink.submit(writer -> writer.fail(this, error));
+		return this;
+	}
+
+	public TestLog log(Status status, String details) {
+		sink.submit(writer -> writer.log(this, status, details));
+		return this;
+	}
+
+	/**
+	 * Attaches a screenshot already written to disk.
+	 *
+	 * @param path Parameter of type String.
+	 * @return This log.
+	 */
+	public TestLog addScreenCaptureFromPath(String path) {
+		sink.submit(writer -> writer.screenshot(this, path));
+		return this;
+	}
+
+	// Called by the listener once the result and its screenshot are logged
+	void end() {
+		sink.submit(writer -> writer.end(this));
+	}
+}
@@ -5,19 +5,44 @@ import org.openqa.selenium.WebDriver;
 import org.testng.annotations.*;
 
 import frameworkAutomate.core.DriverFactory;
+import frameworkAutomate.core.FixtureServer;
+import frameworkAutomate.utils.ConfigReader;
 
+/**
+ * Base class for all tests. It initializes the WebDriver and opens the base URL before each test.
+ * It also ensures that the WebDriver is closed after each test.
+ * <p>
+ * The driver lives in {@link DriverFactory} per thread, so test methods of the same instance
+ * can run in parallel without sharing a session.
+ * <p>
+ * With {@code standin.enabled=true} the suite runs against an in-process {@link FixtureServer}
+ * serving snapshots of the pages under test: {@code base.url} is pointed at it before any driver
+ * is created, so runs are offline and deterministic ({@code standin.latency} adds a fixed delay).
+ */
 @Listeners({ frameworkAutomate.listeners.ExtentTestListener.class })
 public class BaseTest {
 
-	protected WebDriver driver;
+	// Static lock: several test classes, or parallel suites, share the one server
+	private static final Object STAND_IN_LOCK = new Object();
+	private static FixtureServer standIn; // local copy of the site, when standin.enabled=true
 
 	/**
-	 * Base class for all tests. It initializes the WebDriver and opens the base URL before each test.
-	 * It also ensures that the WebDriver is closed after each test.
+	 * Starts the stand-in server and points {@code base.url} at it, when
+	 * {@code standin.enabled=true}.
 	 */
+	@BeforeSuite(alwaysRun = true)
+	public void startStandInServer() {
+		synchronized (STAND_IN_LOCK) {
+			if (standIn == null && Boolean.parseBoolean(ConfigReader.get("standin.enabled", "false").trim())) {
+				standIn = FixtureServer.fromConfig();
+				ConfigReader.override("base.url", standIn.baseUrl());
+			}
+		}
+	}
+
 	@BeforeMethod
 	public void setup() {
-		driver = DriverFactory.getDriver();
+		DriverFactory.getDriver();
 		//driver.get(ConfigReader.get("base.url"));
 	}
 
@@ -25,4 +50,20 @@ public class BaseTest {
 	public void teardown() {
 		DriverFactory.quitDriver();
 	}
+
+	/** Stops the stand-in server, if one was started. */
+	@AfterSuite(alwaysRun = true)
+	public void stopStandInServer() {
+		synchronized (STAND_IN_LOCK) {
+			if (standIn != null) {
+				standIn.close();
+				standIn = null;
+			}
+		}
+	}
+
+	/** Returns the WebDriver of the thread running the current test. */
+	protected WebDriver getDriver() {
+		return DriverFactory.getDriver();
+	}
 }
@@ -1,20 +1,29 @@
 package frameworkAutomate.tests;
 
+import java.util.Iterator;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
-import com.aventstack.extentreports.ExtentTest;
+import frameworkAutomate.core.SessionSnapshots;
 import frameworkAutomate.listeners.ExtentTestListener;
+import frameworkAutomate.listeners.ShardRows;
+import frameworkAutomate.listeners.TestLog;
 import frameworkAutomate.pages.HomePage;
 import frameworkAutomate.utils.ConfigReader;
+import frameworkAutomate.utils.DataRows;
 
 public class HomePageTest extends BaseTest {
 
 	@Test(groups = { "smoke" }, description = "Validate navigation to Home Page")
 	public void Test_01_ValidateNavigationToHomePage() {
 
-		ExtentTest log = ExtentTestListener.getTest();
+		TestLog log = ExtentTestListener.getTest();
 		
-		HomePage homePage = new HomePage(driver);
+		HomePage homePage = new HomePage(getDriver());
 		homePage.goTo(ConfigReader.get("base.url"));
 		
 		log.info("Starting Home Page navigation test");
@@ -26,14 +35,19 @@ public class HomePageTest extends BaseTest {
 		Assert.assertTrue(actualUrl.contains(expectedUrl), "The URL is incorrect");
 	}
 
-	@Test(groups = { "smoke" }, description = "Validate clicking on card")
-	public void Test_02_ValidateClickingOnCard() {
+	/** One row per card of the home page: its name and the path it opens. */
+	@DataProvider(name = "cards")
+	public Iterator<Object[]> cards() {
+		return DataRows.open("data/home-cards.csv").columns("card", "path").sharded().iterator();
+	}
 
-		ExtentTest log = ExtentTestListener.getTest();
-		HomePage homePage = new HomePage(driver);
+	@ShardRows
+	@Test(groups = { "smoke" }, dataProvider = "cards", description = "Validate clicking on card")
+	public void Test_02_ValidateClickingOnCard(String cardName, String path) {
+
+		TestLog log = ExtentTestListener.getTest();
+		HomePage homePage = new HomePage(getDriver());
 		homePage.goTo(ConfigReader.get("base.url"));
-		
-		String cardName = ConfigReader.get("cardname");
 
 		log.info(String.format("Starting '%s' card click test", cardName));
 
@@ -41,10 +55,40 @@ public class HomePageTest extends BaseTest {
 		homePage.clickOnCardByName(cardName);
 
 		log.info(String.format("Validating that the URL contains the expected path for '%s'", cardName));
-		String expectedUrl = ConfigReader.get("base.url") + cardName.toLowerCase();
+		String expectedUrl = ConfigReader.get("base.url") + path;
 		Assert.assertTrue(homePage.getCurrentUrl().contains(expectedUrl),
 				String.format("The URL is incorrect after clicking on '%s' card", cardName));
 
 		log.pass(String.format("'%s' card click test completed successfully", cardName));
 	}
+
+	@Test(groups = { "smoke" }, description = "Validate that startFrom restores the state its setup left")
+	public void Test_03_ValidateStartFromRestoresState() {
+
+		TestLog log = ExtentTestListener.getTest();
+		WebDriver driver = getDriver();
+		HomePage homePage = new HomePage(driver);
+		SessionSnapshots.invalidate("home-visited"); // a snapshot from an earlier run would skip the setup
+
+		log.info("Running the setup once and capturing its state");
+		boolean restored = homePage.startFrom("home-visited", () -> {
+			homePage.goTo(ConfigReader.get("base.url"));
+			driver.manage().addCookie(new Cookie("visited", "yes"));
+			((JavascriptExecutor) driver).executeScript("localStorage.setItem('visited', 'yes');");
+		});
+		Assert.assertFalse(restored, "The setup should run when there is no snapshot");
+
+		log.info("Clearing the session and restoring the snapshot");
+		driver.manage().deleteAllCookies();
+		((JavascriptExecutor) driver).executeScript("localStorage.clear();");
+		Assert.assertTrue(homePage.startFrom("home-visited", () -> Assert.fail("The setup ran twice")),
+				"The snapshot should be restored");
+
+		homePage.goTo(ConfigReader.get("base.url"));
+		Assert.assertEquals(driver.manage().getCookieNamed("visited").getValue(), "yes");
+		Assert.assertEquals(((JavascriptExecutor) driver).executeScript("return localStorage.getItem('visited');"), "yes");
+		SessionSnapshots.invalidate("home-visited");
+
+		log.pass("startFrom restored the cookie and localStorage of the setup");
+	}
 }
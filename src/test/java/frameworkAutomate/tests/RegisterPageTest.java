@@ -1,27 +1,75 @@
 package frameworkAutomate.tests;
 
-import org.testng.annotations.Test;
+import java.util.Iterator;
+import java.util.List;
 
-import com.aventstack.extentreports.ExtentTest;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
 
 import frameworkAutomate.listeners.ExtentTestListener;
+import frameworkAutomate.listeners.ShardRows;
+import frameworkAutomate.listeners.TestLog;
 import frameworkAutomate.pages.RegisterPage;
 import frameworkAutomate.utils.ConfigReader;
+import frameworkAutomate.utils.DataRows;
 
 public class RegisterPageTest extends BaseTest {
 	
 	
 	@Test(groups = { "smoke" }, description = "Validate navigation to Register Page")
 	public void Test_01_ValidateNavigationToRegisterPage() {
-		ExtentTest log = ExtentTestListener.getTest();
+		TestLog log = ExtentTestListener.getTest();
 		
 		log.info("Starting Home Page navigation test");
 
-		RegisterPage registerPage = new RegisterPage(driver);
+		RegisterPage registerPage = new RegisterPage(getDriver());
 		
 		registerPage.goTo(ConfigReader.get("base.url") + "register");
 		
 		log.info("Validating that the Register Page url is correct");
 		assert registerPage.getCurrentUrl().equals(ConfigReader.get("base.url") + "register") : "Register Page URL is incorrect";
 	}
+
+	@Test(groups = { "smoke" }, description = "Validate the Register Page form is displayed")
+	public void Test_02_ValidateRegisterFormIsDisplayed() {
+		TestLog log = ExtentTestListener.getTest();
+
+		RegisterPage registerPage = new RegisterPage(getDriver());
+		registerPage.goTo(ConfigReader.get("base.url") + "register");
+
+		log.info("Reading the whole register form in one call");
+		Assert.assertTrue(registerPage.isFormDisplayed(), "The register form is not fully displayed");
+	}
+
+	/**
+	 * One row per registration attempt: the four inputs and the ids of the
+	 * inputs expected to be flagged (semicolon-separated, empty for a complete
+	 * form).
+	 */
+	@DataProvider(name = "registrations")
+	public Iterator<Object[]> registrations() {
+		return DataRows.open("data/register-users.csv").sharded().iterator();
+	}
+
+	@ShardRows
+	@Test(groups = { "regression" }, dataProvider = "registrations", description = "Validate the Register Page form validation")
+	public void Test_03_ValidateRegisterFormValidation(String firstName, String lastName, String userName,
+			String password, String invalid) {
+		TestLog log = ExtentTestListener.getTest();
+
+		RegisterPage registerPage = new RegisterPage(getDriver());
+		registerPage.goTo(ConfigReader.get("base.url") + "register");
+
+		log.info(String.format("Registering '%s' without the captcha", userName));
+		registerPage.register(firstName, lastName, userName, password);
+
+		if (invalid.isEmpty()) {
+			log.info("Validating that the captcha is required");
+			Assert.assertEquals(registerPage.getOutputMessage(), "Please verify reCaptcha to register!");
+		} else {
+			log.info(String.format("Validating that '%s' are flagged as invalid", invalid));
+			Assert.assertEquals(registerPage.getInvalidFields(), List.of(invalid.split(";")));
+		}
+	}
 }